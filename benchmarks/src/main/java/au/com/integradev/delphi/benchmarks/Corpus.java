@@ -0,0 +1,148 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2024 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.benchmarks;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import au.com.integradev.delphi.DelphiProperties;
+import au.com.integradev.delphi.compiler.Platform;
+import au.com.integradev.delphi.file.DelphiFile;
+import au.com.integradev.delphi.file.DelphiFileConfig;
+import au.com.integradev.delphi.preprocessor.DelphiPreprocessorFactory;
+import au.com.integradev.delphi.preprocessor.search.SearchPath;
+import au.com.integradev.delphi.symbol.SymbolTable;
+import au.com.integradev.delphi.symbol.SymbolTableBuilder;
+import au.com.integradev.delphi.type.factory.TypeFactoryImpl;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.sonar.plugins.communitydelphi.api.type.TypeFactory;
+
+/** A generated Delphi project on disk, deleted again when the corpus is closed. */
+public final class Corpus implements AutoCloseable {
+  public static final long SEED = 20240101L;
+
+  private final Path directory;
+  private final Path standardLibraryPath;
+  private final List<Path> sourceFiles;
+
+  private Corpus(Path directory, Path standardLibraryPath, List<Path> sourceFiles) {
+    this.directory = directory;
+    this.standardLibraryPath = standardLibraryPath;
+    this.sourceFiles = sourceFiles;
+  }
+
+  /**
+   * Generates a project of units that use each other
+   *
+   * @param units the number of units to generate
+   * @param routines the number of methods and global routines in each unit
+   * @return the generated corpus
+   * @throws IOException if the corpus could not be written
+   */
+  public static Corpus project(int units, int routines) throws IOException {
+    CorpusGenerator generator = new CorpusGenerator(SEED);
+    Path directory = Files.createTempDirectory("delphi-benchmarks");
+    List<Path> sourceFiles = new ArrayList<>();
+
+    for (int i = 0; i < units; ++i) {
+      String source = generator.generateUnit(i, generator.generateUses(i, 3), routines);
+      sourceFiles.add(write(directory, CorpusGenerator.unitName(i), source));
+    }
+
+    return new Corpus(directory, writeStandardLibrary(directory), List.copyOf(sourceFiles));
+  }
+
+  /**
+   * Generates a single unit containing invocations of overloaded routines
+   *
+   * @param invocations the number of invocations to generate
+   * @return the generated corpus
+   * @throws IOException if the corpus could not be written
+   */
+  public static Corpus overloads(int invocations) throws IOException {
+    CorpusGenerator generator = new CorpusGenerator(SEED);
+    Path directory = Files.createTempDirectory("delphi-benchmarks");
+    Path sourceFile =
+        write(directory, "BenchOverloads", generator.generateOverloadUnit(invocations));
+
+    return new Corpus(directory, writeStandardLibrary(directory), List.of(sourceFile));
+  }
+
+  private static Path writeStandardLibrary(Path directory) throws IOException {
+    Path standardLibrary = Files.createDirectory(directory.resolve("standard-library"));
+    write(standardLibrary, "System", CorpusGenerator.generateSystemUnit());
+    write(standardLibrary, "SysInit", CorpusGenerator.generateSysInitUnit());
+    return standardLibrary;
+  }
+
+  private static Path write(Path directory, String unitName, String source) throws IOException {
+    return Files.writeString(directory.resolve(unitName + ".pas"), source, UTF_8);
+  }
+
+  public static TypeFactory createTypeFactory() {
+    return new TypeFactoryImpl(
+        DelphiProperties.COMPILER_TOOLCHAIN_DEFAULT, DelphiProperties.COMPILER_VERSION_DEFAULT);
+  }
+
+  public static DelphiFileConfig createConfig(TypeFactory typeFactory) {
+    return DelphiFile.createConfig(
+        UTF_8.name(),
+        new DelphiPreprocessorFactory(Platform.WINDOWS),
+        typeFactory,
+        SearchPath.create(List.of()),
+        Set.of());
+  }
+
+  public SymbolTableBuilder symbolTableBuilder(TypeFactory typeFactory) {
+    return SymbolTable.builder()
+        .preprocessorFactory(new DelphiPreprocessorFactory(Platform.WINDOWS))
+        .typeFactory(typeFactory)
+        .encoding(UTF_8.name())
+        .standardLibraryPath(standardLibraryPath)
+        .sourceFiles(sourceFiles);
+  }
+
+  public List<Path> getSourceFiles() {
+    return sourceFiles;
+  }
+
+  @Override
+  public void close() {
+    try (Stream<Path> paths = Files.walk(directory)) {
+      paths.sorted(Comparator.reverseOrder()).forEach(Corpus::delete);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static void delete(Path path) {
+    try {
+      Files.delete(path);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
@@ -0,0 +1,282 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2024 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates synthetic Delphi source code for benchmarks.
+ *
+ * <p>The output only depends on the seed, so every run of a benchmark sees the same corpus.
+ */
+public final class CorpusGenerator {
+  private static final String[] TYPES = {"Integer", "Int64", "Double", "String", "Boolean", "Char"};
+
+  private final Random random;
+
+  public CorpusGenerator(long seed) {
+    this.random = new Random(seed);
+  }
+
+  /**
+   * Generates a unit declaring a class and some global routines, with implementations that call
+   * into the global routines of the used units.
+   *
+   * @param index the index of the unit, which determines its name
+   * @param uses the indices of the units to use from the interface section
+   * @param routines the number of methods and global routines to generate
+   * @return source code of the unit
+   */
+  public String generateUnit(int index, List<Integer> uses, int routines) {
+    StringBuilder source = new StringBuilder();
+    String className = "TBenchClass" + index;
+
+    source.append("unit ").append(unitName(index)).append(";\n\n");
+    source.append("interface\n\n");
+
+    if (!uses.isEmpty()) {
+      source.append("uses\n  ");
+      for (int i = 0; i < uses.size(); ++i) {
+        source.append(i == 0 ? "" : ", ").append(unitName(uses.get(i)));
+      }
+      source.append(";\n\n");
+    }
+
+    source.append("type\n");
+    source.append("  ").append(className).append(" = class(TObject)\n");
+    source.append("  private\n");
+    for (int i = 0; i < routines; ++i) {
+      source.append("    FValue").append(i).append(": ").append(randomType()).append(";\n");
+    }
+    source.append("  public\n");
+    for (int i = 0; i < routines; ++i) {
+      source.append("    function Method").append(i).append("(A: Integer; B: String): Integer;\n");
+    }
+    source.append("  end;\n\n");
+
+    for (int i = 0; i < routines; ++i) {
+      source.append(globalRoutineHeading(index, i)).append(";\n");
+    }
+
+    source.append("\nimplementation\n\n");
+
+    for (int i = 0; i < routines; ++i) {
+      source.append("{ ").append(className).append(".Method").append(i).append(" }\n\n");
+      source.append("function ").append(className).append(".Method").append(i);
+      source.append("(A: Integer; B: String): Integer;\n");
+      appendBody(source, uses, routines);
+
+      source.append(globalRoutineHeading(index, i)).append(";\n");
+      appendBody(source, uses, routines);
+    }
+
+    source.append("end.\n");
+    return source.toString();
+  }
+
+  /**
+   * Generates a unit declaring a set of overloads, along with a routine that invokes them with
+   * arguments of assorted types.
+   *
+   * @param invocations the number of invocations to generate
+   * @return source code of the unit
+   */
+  public String generateOverloadUnit(int invocations) {
+    StringBuilder source = new StringBuilder();
+    source.append("unit BenchOverloads;\n\ninterface\n\n");
+
+    for (String type : TYPES) {
+      source.append("procedure Overloaded(Value: ").append(type).append("); overload;\n");
+      source.append("procedure Overloaded(Value: ").append(type);
+      source.append("; Other: Integer); overload;\n");
+    }
+    source.append("procedure Overloaded(Value: Extended; Other: Double); overload;\n");
+    source.append("procedure Invocations;\n\nimplementation\n\n");
+
+    for (String type : TYPES) {
+      source.append("procedure Overloaded(Value: ").append(type).append(");\nbegin\nend;\n\n");
+      source.append("procedure Overloaded(Value: ").append(type);
+      source.append("; Other: Integer);\nbegin\nend;\n\n");
+    }
+    source.append("procedure Overloaded(Value: Extended; Other: Double);\nbegin\nend;\n\n");
+
+    source.append("procedure Invocations;\nbegin\n");
+    for (int i = 0; i < invocations; ++i) {
+      source.append("  Overloaded(").append(randomLiteral());
+      if (random.nextBoolean()) {
+        source.append(", ").append(randomLiteral());
+      }
+      source.append(");\n");
+    }
+    source.append("end;\n\nend.\n");
+
+    return source.toString();
+  }
+
+  /**
+   * Generates the indices of the units that a unit should use. Units only use units with a lower
+   * index, so there are no circular dependencies.
+   *
+   * @param index the index of the unit
+   * @param maxUses the maximum number of units to use
+   * @return indices of the units to use
+   */
+  public List<Integer> generateUses(int index, int maxUses) {
+    List<Integer> result = new ArrayList<>();
+    for (int i = 0; i < Math.min(index, maxUses); ++i) {
+      int candidate = random.nextInt(index);
+      if (!result.contains(candidate)) {
+        result.add(candidate);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Generates a minimal standard library, containing only what the symbol table requires.
+   *
+   * @return source code of the System unit
+   */
+  public static String generateSystemUnit() {
+    return "unit System;\n"
+        + "interface\n"
+        + "type\n"
+        + "  TObject = class\n"
+        + "  end;\n"
+        + "  IInterface = interface\n"
+        + "  end;\n"
+        + "  TClassHelperBase = class\n"
+        + "  end;\n"
+        + "  TVarRec = record\n"
+        + "  end;\n"
+        + "implementation\n"
+        + "end.";
+  }
+
+  /**
+   * Generates the SysInit unit of the minimal standard library.
+   *
+   * @return source code of the SysInit unit
+   */
+  public static String generateSysInitUnit() {
+    return "unit SysInit;\ninterface\nimplementation\nend.";
+  }
+
+  public static String unitName(int index) {
+    return "BenchUnit" + index;
+  }
+
+  private static String globalRoutineHeading(int unit, int routine) {
+    return String.format("function GlobalRoutine%d_%d(A: Integer): Integer", unit, routine);
+  }
+
+  private void appendBody(StringBuilder source, List<Integer> uses, int routines) {
+    source.append("var\n  I: Integer;\n  S: String;\n");
+    source.append("begin\n");
+    source.append("  Result := 0;\n");
+
+    int statements = 2 + random.nextInt(6);
+    for (int i = 0; i < statements; ++i) {
+      appendStatement(source, uses, routines);
+    }
+
+    source.append("end;\n\n");
+  }
+
+  private void appendStatement(StringBuilder source, List<Integer> uses, int routines) {
+    switch (random.nextInt(6)) {
+      case 0:
+        source.append("  for I := 0 to A do begin\n");
+        source.append("    if I mod ").append(2 + random.nextInt(5)).append(" = 0 then\n");
+        source.append("      Result := Result + I\n");
+        source.append("    else\n");
+        source.append("      Result := Result - ").append(randomCall(uses, routines)).append(";\n");
+        source.append("  end;\n");
+        break;
+      case 1:
+        source.append("  case A of\n");
+        int labels = 2 + random.nextInt(8);
+        for (int i = 0; i < labels; ++i) {
+          source.append("    ").append(i).append(": Result := ").append(random.nextInt(1000));
+          source.append(";\n");
+        }
+        source.append("  else\n    Result := Length(B);\n  end;\n");
+        break;
+      case 2:
+        source.append("  S := B + '").append(randomWord()).append("';\n");
+        source.append("  // ").append(randomWord()).append(' ').append(randomWord()).append('\n');
+        source.append("  if (S <> '') and (Result > ").append(random.nextInt(100));
+        source.append(") then\n");
+        source.append("    Result := Result * 2;\n");
+        break;
+      case 3:
+        source.append("  {$IFDEF DEBUG}\n");
+        source.append("  Result := -Result;\n");
+        source.append("  {$ELSE}\n");
+        source.append("  Result := Result + ").append(random.nextInt(100)).append(";\n");
+        source.append("  {$ENDIF}\n");
+        break;
+      case 4:
+        source.append("  while Result > ").append(random.nextInt(1000)).append(" do\n");
+        source.append("    Result := Result div 2;\n");
+        break;
+      default:
+        source.append("  Result := Result + ").append(randomCall(uses, routines)).append(";\n");
+        break;
+    }
+  }
+
+  private String randomCall(List<Integer> uses, int routines) {
+    if (uses.isEmpty()) {
+      return "A";
+    }
+    int unit = uses.get(random.nextInt(uses.size()));
+    return String.format("GlobalRoutine%d_%d(A)", unit, random.nextInt(routines));
+  }
+
+  private String randomType() {
+    return TYPES[random.nextInt(TYPES.length)];
+  }
+
+  private String randomLiteral() {
+    switch (random.nextInt(5)) {
+      case 0:
+        return Integer.toString(random.nextInt(100_000));
+      case 1:
+        return random.nextInt(100) + "." + random.nextInt(100);
+      case 2:
+        return "'" + randomWord() + "'";
+      case 3:
+        return random.nextBoolean() ? "True" : "False";
+      default:
+        return "'" + (char) ('A' + random.nextInt(26)) + "'";
+    }
+  }
+
+  private String randomWord() {
+    int length = 3 + random.nextInt(8);
+    StringBuilder word = new StringBuilder(length);
+    for (int i = 0; i < length; ++i) {
+      word.append((char) ('a' + random.nextInt(26)));
+    }
+    return word.toString();
+  }
+}
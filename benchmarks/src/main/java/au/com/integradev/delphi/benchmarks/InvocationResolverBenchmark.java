@@ -0,0 +1,117 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2024 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.benchmarks;
+
+import au.com.integradev.delphi.antlr.ast.visitors.SymbolAssociationVisitor;
+import au.com.integradev.delphi.file.DelphiFile;
+import au.com.integradev.delphi.symbol.SymbolTable;
+import au.com.integradev.delphi.symbol.resolve.ArgumentMatchCache;
+import au.com.integradev.delphi.symbol.resolve.InvocationArgument;
+import au.com.integradev.delphi.symbol.resolve.InvocationCandidate;
+import au.com.integradev.delphi.symbol.resolve.InvocationResolver;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.sonar.plugins.communitydelphi.api.ast.ArgumentListNode;
+import org.sonar.plugins.communitydelphi.api.symbol.declaration.RoutineNameDeclaration;
+import org.sonar.plugins.communitydelphi.api.symbol.declaration.UnitNameDeclaration;
+import org.sonar.plugins.communitydelphi.api.type.TypeFactory;
+
+/** Resolves invocations of a set of overloads, with arguments taken from a generated unit. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InvocationResolverBenchmark {
+  @Param({"1000"})
+  public int invocations;
+
+  private Corpus corpus;
+  private List<RoutineNameDeclaration> overloads;
+  private List<List<InvocationArgument>> argumentLists;
+
+  @Setup
+  public void setup() throws IOException {
+    corpus = Corpus.overloads(invocations);
+
+    TypeFactory typeFactory = Corpus.createTypeFactory();
+    SymbolTable symbolTable = corpus.symbolTableBuilder(typeFactory).build();
+    Path sourceFile = corpus.getSourceFiles().get(0);
+
+    DelphiFile file = DelphiFile.from(sourceFile.toFile(), Corpus.createConfig(typeFactory));
+    new SymbolAssociationVisitor()
+        .visit(file.getAst(), new SymbolAssociationVisitor.Data(symbolTable));
+
+    UnitNameDeclaration unit = symbolTable.getUnitByPath(sourceFile.toAbsolutePath().toString());
+    overloads =
+        unit.getFileScope().getRoutineDeclarations().stream()
+            .filter(routine -> routine.getName().equalsIgnoreCase("Overloaded"))
+            .collect(Collectors.toUnmodifiableList());
+
+    argumentLists =
+        file.getAst().findDescendantsOfType(ArgumentListNode.class).stream()
+            .map(
+                argumentList ->
+                    argumentList.getArguments().stream()
+                        .map(InvocationArgument::new)
+                        .collect(Collectors.toUnmodifiableList()))
+            .collect(Collectors.toUnmodifiableList());
+  }
+
+  @TearDown
+  public void tearDown() {
+    corpus.close();
+  }
+
+  @Benchmark
+  public void resolve(Blackhole blackhole) {
+    // Matches are only shared between the invocations of a single run, so that every run measures
+    // the same mix of cache misses and hits.
+    ArgumentMatchCache argumentMatchCache = new ArgumentMatchCache();
+    for (List<InvocationArgument> arguments : argumentLists) {
+      InvocationResolver resolver = new InvocationResolver(argumentMatchCache);
+      arguments.forEach(resolver::addArgument);
+      for (RoutineNameDeclaration overload : overloads) {
+        if (overload.getParametersCount() >= arguments.size()
+            && overload.getRequiredParametersCount() <= arguments.size()) {
+          resolver.addCandidate(new InvocationCandidate(overload));
+        }
+      }
+      resolver.processCandidates();
+      blackhole.consume(resolver.chooseBest());
+    }
+  }
+}
@@ -0,0 +1,59 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2024 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.benchmarks;
+
+import au.com.integradev.delphi.antlr.DelphiParser;
+import au.com.integradev.delphi.antlr.ast.DelphiTreeAdaptor;
+import java.util.concurrent.TimeUnit;
+import org.antlr.runtime.RecognitionException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ParserBenchmark {
+  @State(Scope.Thread)
+  public static class ParserState {
+    DelphiParser parser;
+
+    @Setup(Level.Invocation)
+    public void setup(SourceFileState source) {
+      // Parsing takes long enough that the per-invocation setup overhead doesn't matter.
+      parser = new DelphiParser(source.preprocess().getTokenStream());
+      parser.setTreeAdaptor(new DelphiTreeAdaptor());
+    }
+  }
+
+  @Benchmark
+  public Object parse(ParserState state) throws RecognitionException {
+    return state.parser.file().getTree();
+  }
+}
@@ -0,0 +1,66 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2024 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.benchmarks;
+
+import au.com.integradev.delphi.antlr.DelphiFileStream;
+import au.com.integradev.delphi.antlr.DelphiLexer;
+import au.com.integradev.delphi.file.DelphiFileConfig;
+import au.com.integradev.delphi.preprocessor.DelphiPreprocessor;
+import java.io.IOException;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/** A single generated unit, read into memory once so that file IO isn't measured. */
+@State(Scope.Benchmark)
+public class SourceFileState {
+  @Param({"100", "1000"})
+  public int routines;
+
+  private Corpus corpus;
+  private DelphiFileStream fileStream;
+  private DelphiFileConfig config;
+
+  @Setup
+  public void setup() throws IOException {
+    corpus = Corpus.project(1, routines);
+    config = Corpus.createConfig(Corpus.createTypeFactory());
+    String path = corpus.getSourceFiles().get(0).toAbsolutePath().toString();
+    fileStream = new DelphiFileStream(path, config.getEncoding());
+  }
+
+  @TearDown
+  public void tearDown() {
+    corpus.close();
+  }
+
+  DelphiLexer createLexer() {
+    fileStream.reset();
+    return new DelphiLexer(fileStream);
+  }
+
+  DelphiPreprocessor preprocess() {
+    DelphiPreprocessor preprocessor =
+        config.getPreprocessorFactory().createPreprocessor(createLexer(), config);
+    preprocessor.process();
+    return preprocessor;
+  }
+}
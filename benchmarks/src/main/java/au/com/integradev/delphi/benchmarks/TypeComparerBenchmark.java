@@ -0,0 +1,77 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2024 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.benchmarks;
+
+import au.com.integradev.delphi.symbol.resolve.TypeComparer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.sonar.plugins.communitydelphi.api.type.IntrinsicType;
+import org.sonar.plugins.communitydelphi.api.type.Type;
+import org.sonar.plugins.communitydelphi.api.type.TypeFactory;
+
+/** Compares every pair of a fixed set of types. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TypeComparerBenchmark {
+  private List<Type> types;
+
+  @Setup
+  public void setup() {
+    TypeFactory factory = Corpus.createTypeFactory();
+    types = new ArrayList<>();
+
+    for (IntrinsicType intrinsic : IntrinsicType.values()) {
+      Type type = factory.getIntrinsic(intrinsic);
+      types.add(type);
+      types.add(factory.pointerTo(null, type));
+    }
+
+    types.add(factory.strongAlias("TMyInteger", factory.getIntrinsic(IntrinsicType.INTEGER)));
+    types.add(factory.weakAlias("TMyString", factory.getIntrinsic(IntrinsicType.UNICODESTRING)));
+    types.add(factory.set(factory.getIntrinsic(IntrinsicType.ANSICHAR)));
+    types.add(factory.fileOf(factory.getIntrinsic(IntrinsicType.BYTE)));
+    types.add(factory.untypedPointer());
+    types.add(factory.nilPointer());
+  }
+
+  @Benchmark
+  public void compare(Blackhole blackhole) {
+    for (Type from : types) {
+      for (Type to : types) {
+        blackhole.consume(TypeComparer.compare(from, to));
+      }
+    }
+  }
+}
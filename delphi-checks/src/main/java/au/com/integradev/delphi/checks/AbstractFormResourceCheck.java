@@ -18,16 +18,13 @@
  */
 package au.com.integradev.delphi.checks;
 
-import java.util.Optional;
 import org.apache.commons.lang3.StringUtils;
 import org.sonar.plugins.communitydelphi.api.ast.DelphiAst;
 import org.sonar.plugins.communitydelphi.api.ast.DelphiNode;
 import org.sonar.plugins.communitydelphi.api.ast.TypeDeclarationNode;
 import org.sonar.plugins.communitydelphi.api.check.DelphiCheck;
 import org.sonar.plugins.communitydelphi.api.check.DelphiCheckContext;
-import org.sonar.plugins.communitydelphi.api.directive.CompilerDirective;
 import org.sonar.plugins.communitydelphi.api.directive.ResourceDirective;
-import org.sonar.plugins.communitydelphi.api.token.DelphiToken;
 import org.sonar.plugins.communitydelphi.api.type.Type;
 
 abstract class AbstractFormResourceCheck extends DelphiCheck {
@@ -41,10 +38,7 @@ abstract class AbstractFormResourceCheck extends DelphiCheck {
 
   @Override
   public DelphiCheckContext visit(DelphiAst ast, DelphiCheckContext context) {
-    if (context.getTokens().stream()
-        .filter(DelphiToken::isCompilerDirective)
-        .map(token -> context.getCompilerDirectiveParser().parse(token))
-        .flatMap(Optional::stream)
+    if (context.getCompilerDirectiveIndex().getDirectives(ResourceDirective.class).stream()
         .anyMatch(this::isFormResource)) {
       return context;
     }
@@ -67,10 +61,9 @@ abstract class AbstractFormResourceCheck extends DelphiCheck {
     return context;
   }
 
-  private boolean isFormResource(CompilerDirective directive) {
-    return directive instanceof ResourceDirective
-        && StringUtils.endsWithIgnoreCase(
-            ((ResourceDirective) directive).getResourceFile(), "." + getResourceFileExtension());
+  private boolean isFormResource(ResourceDirective directive) {
+    return StringUtils.endsWithIgnoreCase(
+        directive.getResourceFile(), "." + getResourceFileExtension());
   }
 
   private String getMessage(String componentKind) {
@@ -36,7 +36,8 @@ public class CompilerHintsCheck extends DelphiCheck {
   @Override
   public void visitToken(DelphiToken token, DelphiCheckContext context) {
     if (token.isCompilerDirective()) {
-      CompilerDirective directive = context.getCompilerDirectiveParser().parse(token).orElse(null);
+      CompilerDirective directive =
+          context.getCompilerDirectiveIndex().getDirective(token).orElse(null);
       if (directive instanceof SwitchDirective) {
         var switchDirective = (SwitchDirective) directive;
         if (switchDirective.kind() == SwitchKind.HINTS && !switchDirective.isActive()) {
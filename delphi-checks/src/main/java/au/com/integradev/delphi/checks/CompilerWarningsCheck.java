@@ -38,7 +38,8 @@ public class CompilerWarningsCheck extends DelphiCheck {
   @Override
   public void visitToken(DelphiToken token, DelphiCheckContext context) {
     if (token.isCompilerDirective()) {
-      CompilerDirective directive = context.getCompilerDirectiveParser().parse(token).orElse(null);
+      CompilerDirective directive =
+          context.getCompilerDirectiveIndex().getDirective(token).orElse(null);
       if (isViolation(directive)) {
         context.newIssue().onFilePosition(FilePosition.from(token)).withMessage(MESSAGE).report();
       }
@@ -128,6 +128,26 @@ package au.com.integradev.delphi.antlr;
     resetBinaryExpressionTokens(binaryExpression.getRight());
   }
 
+  // Memoized rule results are only read while backtracking, and the parser never backtracks to
+  // before a token it has consumed outside of a syntactic predicate. Discarding the results for
+  // those tokens keeps the memo tables from growing with the size of the file.
+  private static final int MEMO_PRUNE_INTERVAL = 1024;
+  private int lastMemoPruneIndex;
+
+  private void pruneMemos() {
+    int index = input.index();
+    if (state.backtracking > 0 || index - lastMemoPruneIndex < MEMO_PRUNE_INTERVAL) {
+      return;
+    }
+
+    lastMemoPruneIndex = index;
+    for (java.util.Map<Integer, Integer> memo : state.ruleMemo) {
+      if (memo != null) {
+        memo.keySet().removeIf(startIndex -> startIndex < index);
+      }
+    }
+  }
+
   public static class ParserException extends RuntimeException {
     public ParserException(String message, Throwable cause) {
       super(message, cause);
@@ -215,14 +235,18 @@ localDeclSection             : declSection+ -> ^(TkLocalDeclarations<LocalDeclar
 blockBody                    : compoundStatement
                              | assemblerStatement
                              ;
-declSection                  : labelDeclSection
+declSection
+                             @after { pruneMemos(); }
+                             : labelDeclSection
                              | constSection
                              | typeSection
                              | varSection
                              | routineImplementation
                              | exportsSection
                              ;
-interfaceDecl                : constSection
+interfaceDecl
+                             @after { pruneMemos(); }
+                             : constSection
                              | typeSection
                              | varSection
                              | exportsSection
@@ -235,7 +259,9 @@ constSection                 : ('const'<ConstSectionNodeImpl>^ | 'resourcestring
                              // example: "const {$include versioninfo.inc}"
                              // Is this really the appropriate solution?
                              ;
-constDeclaration             : attributeList? nameDeclaration (':' varType)? '=' constExpression portabilityDirective* ';'
+constDeclaration
+                             @after { pruneMemos(); }
+                             : attributeList? nameDeclaration (':' varType)? '=' constExpression portabilityDirective* ';'
                              -> ^(TkConstDeclaration<ConstDeclarationNodeImpl> nameDeclaration constExpression varType? attributeList? portabilityDirective*)
                              ;
 typeSection                  : 'type'<TypeSectionNodeImpl>^ typeDeclaration+
@@ -712,7 +738,9 @@ arrayExpression              : '('<ArrayExpressionNodeImpl>^ (constExpression ('
 //----------------------------------------------------------------------------
 // Statements
 //----------------------------------------------------------------------------
-statement                    : ifStatement
+statement
+                             @after { pruneMemos(); }
+                             : ifStatement
                              | varStatement
                              | constStatement
                              | caseStatement
@@ -741,7 +769,9 @@ caseStatement                : 'case'<CaseStatementNodeImpl>^ expression 'of' ca
                              ;
 elseBlock                    : 'else'<ElseBlockNodeImpl>^ statementList
                              ;
-caseItem                     : expressionOrRangeList ':' (statement)? (';')? -> ^(TkCaseItem<CaseItemStatementNodeImpl> expressionOrRangeList (statement)? (';')? )
+caseItem
+                             @after { pruneMemos(); }
+                             : expressionOrRangeList ':' (statement)? (';')? -> ^(TkCaseItem<CaseItemStatementNodeImpl> expressionOrRangeList (statement)? (';')? )
                              ;
 repeatStatement              : 'repeat'<RepeatStatementNodeImpl>^ statementList 'until' expression
                              ;
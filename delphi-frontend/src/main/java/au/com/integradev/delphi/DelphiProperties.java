@@ -25,6 +25,7 @@ import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.apache.commons.lang3.StringUtils;
+import org.sonar.api.PropertyType;
 import org.sonar.api.config.PropertyDefinition;
 import org.sonar.api.resources.Qualifiers;
 
@@ -42,12 +43,15 @@ public final class DelphiProperties {
   public static final String TEST_ATTRIBUTE_KEY = "sonar.delphi.testAttribute";
   public static final String NUNIT_REPORT_PATHS_PROPERTY = "sonar.delphi.nunit.reportPaths";
   public static final String COVERAGE_REPORT_KEY = "sonar.delphi.coverage.reportPaths";
+  public static final String RETAIN_PARSED_FILES_KEY = "sonar.delphi.retainParsedFiles";
+  public static final String THREADS_KEY = "sonar.delphi.threads";
 
   private static final String DELPHI_CATEGORY = "Delphi";
   private static final String GENERAL_SUBCATEGORY = "General";
   private static final String TOOLCHAIN_SUBCATEGORY = "Toolchain";
   private static final String PROJECT_OPTIONS_SUBCATEGORY = "Project Options";
   private static final String TEST_SUBCATEGORY = "Test and Coverage";
+  private static final String PERFORMANCE_SUBCATEGORY = "Performance";
 
   public static final String EXCLUSIONS_DEFAULT_VALUE = "**/__history/**,**/__recovery/**";
   private static final String INSTALLATION_PATH_DEFAULT =
@@ -57,6 +61,8 @@ public final class DelphiProperties {
       CompilerVersion.fromVersionSymbol("VER350");
   private static final String TEST_TYPE_DEFAULT = "TestFramework.TTestCase";
   private static final String TEST_ATTRIBUTE_DEFAULT = "DUnitX.Attributes.TestFixtureAttribute";
+  public static final boolean RETAIN_PARSED_FILES_DEFAULT = false;
+  public static final int THREADS_DEFAULT = 1;
 
   private DelphiProperties() {
     // hide public constructor
@@ -202,6 +208,29 @@ public final class DelphiProperties {
                     + " Each path may be absolute or relative to the project base directory")
             .multiValues(true)
             .onQualifiers(Qualifiers.PROJECT)
+            .build(),
+        PropertyDefinition.builder(DelphiProperties.RETAIN_PARSED_FILES_KEY)
+            .category(DELPHI_CATEGORY)
+            .subCategory(PERFORMANCE_SUBCATEGORY)
+            .defaultValue(String.valueOf(RETAIN_PARSED_FILES_DEFAULT))
+            .name("Retain parsed files")
+            .description(
+                "Whether source files parsed during symbol table construction should be retained"
+                    + " and reused during analysis, instead of being parsed a second time."
+                    + " This reduces analysis time at the cost of higher memory usage.")
+            .type(PropertyType.BOOLEAN)
+            .onQualifiers(Qualifiers.PROJECT)
+            .build(),
+        PropertyDefinition.builder(DelphiProperties.THREADS_KEY)
+            .category(DELPHI_CATEGORY)
+            .subCategory(PERFORMANCE_SUBCATEGORY)
+            .defaultValue(String.valueOf(THREADS_DEFAULT))
+            .name("Threads")
+            .description(
+                "The number of threads used to parse source files and test/coverage reports."
+                    + " Symbol resolution and checks always run on a single thread.")
+            .type(PropertyType.INTEGER)
+            .onQualifiers(Qualifiers.PROJECT)
             .build());
   }
 }
@@ -18,18 +18,30 @@
  */
 package au.com.integradev.delphi.antlr;
 
-import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
 import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
 import org.antlr.runtime.ANTLRStringStream;
-import org.apache.commons.io.ByteOrderMark;
-import org.apache.commons.io.input.BOMInputStream;
+import org.antlr.runtime.CharStream;
 
 public class DelphiFileStream extends ANTLRStringStream {
+  private static final ByteOrderMark[] BYTE_ORDER_MARKS = {
+    // UTF-32LE has to be checked before UTF-16LE, since their byte order marks share a prefix.
+    new ByteOrderMark("UTF-8", 0xEF, 0xBB, 0xBF),
+    new ByteOrderMark("UTF-32LE", 0xFF, 0xFE, 0x00, 0x00),
+    new ByteOrderMark("UTF-32BE", 0x00, 0x00, 0xFE, 0xFF),
+    new ByteOrderMark("UTF-16LE", 0xFF, 0xFE),
+    new ByteOrderMark("UTF-16BE", 0xFE, 0xFF)
+  };
+
   private final String fileName;
   private final String encoding;
+  private char[] lowercaseData;
+  private List<String> lines;
 
   public DelphiFileStream(String fileName, String encoding) throws IOException {
     this.fileName = fileName;
@@ -38,36 +50,41 @@ public class DelphiFileStream extends ANTLRStringStream {
 
   private String load(String fileName, String encoding) throws IOException {
     if (fileName != null) {
-      File f = new File(fileName);
-      int size = (int) f.length();
-      try (BOMInputStream input =
-          new BOMInputStream(
-              new FileInputStream(fileName),
-              false,
-              ByteOrderMark.UTF_8,
-              ByteOrderMark.UTF_16LE,
-              ByteOrderMark.UTF_16BE,
-              ByteOrderMark.UTF_32LE,
-              ByteOrderMark.UTF_32BE)) {
-
-        ByteOrderMark bom = input.getBOM();
-        if (bom != null) {
-          encoding = bom.getCharsetName();
-        }
+      // The file is read and decoded exactly once. Everything else (the lowercase view used for
+      // lookahead, source lines, token images) is derived from the decoded characters.
+      ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(Path.of(fileName)));
 
-        if (encoding == null) {
-          encoding = Charset.defaultCharset().name();
-        }
+      ByteOrderMark bom = findByteOrderMark(bytes);
+      if (bom != null) {
+        encoding = bom.charsetName;
+        bytes.position(bom.bytes.length);
+      }
 
-        try (InputStreamReader reader = new InputStreamReader(input, encoding)) {
-          this.data = new char[size];
-          super.n = reader.read(this.data);
-        }
+      if (encoding == null) {
+        encoding = Charset.defaultCharset().name();
+      }
+
+      CharBuffer chars = Charset.forName(encoding).decode(bytes);
+      this.data = chars.array();
+      super.n = chars.limit();
+
+      this.lowercaseData = new char[n];
+      for (int i = 0; i < n; ++i) {
+        lowercaseData[i] = Character.toLowerCase(data[i]);
       }
     }
     return encoding;
   }
 
+  private static ByteOrderMark findByteOrderMark(ByteBuffer bytes) {
+    for (ByteOrderMark bom : BYTE_ORDER_MARKS) {
+      if (bom.matches(bytes)) {
+        return bom;
+      }
+    }
+    return null;
+  }
+
   @Override
   public String getSourceName() {
     return this.fileName;
@@ -77,10 +94,70 @@ public class DelphiFileStream extends ANTLRStringStream {
     return this.encoding;
   }
 
+  /**
+   * Returns the lines of the file, as views over the decoded file contents
+   *
+   * @return lines of the file, without line terminators
+   */
+  public List<String> getLines() {
+    if (lines == null) {
+      lines = SourceLines.create(data, n);
+    }
+    return lines;
+  }
+
+  /**
+   * Releases the lowercase copy of the file contents, which is only needed for lexer lookahead.
+   *
+   * <p>Lookahead still works afterward, but lowercases each character as it's read.
+   */
+  public void releaseLowercaseData() {
+    lowercaseData = null;
+  }
+
   @Override
   public int LA(int i) {
-    int la = super.LA(i);
+    if (lowercaseData == null) {
+      return Character.toLowerCase(super.LA(i));
+    }
+
+    if (i == 0) {
+      // undefined
+      return 0;
+    }
+
+    int index = p + i - 1;
+    if (i < 0) {
+      // e.g., translate LA(-1) to use offset i=0; then data[p+0-1]
+      ++index;
+    }
+
+    if (index < 0 || index >= n) {
+      return CharStream.EOF;
+    }
+
+    return lowercaseData[index];
+  }
+
+  private static final class ByteOrderMark {
+    private final String charsetName;
+    private final int[] bytes;
+
+    private ByteOrderMark(String charsetName, int... bytes) {
+      this.charsetName = charsetName;
+      this.bytes = bytes;
+    }
 
-    return Character.toLowerCase(la);
+    private boolean matches(ByteBuffer buffer) {
+      if (buffer.remaining() < bytes.length) {
+        return false;
+      }
+      for (int i = 0; i < bytes.length; ++i) {
+        if ((buffer.get(i) & 0xFF) != bytes[i]) {
+          return false;
+        }
+      }
+      return true;
+    }
   }
 }
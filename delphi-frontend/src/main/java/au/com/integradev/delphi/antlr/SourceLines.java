@@ -0,0 +1,95 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2024 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.antlr;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * The lines of a source file, sliced from the decoded file contents on demand.
+ *
+ * <p>Lines are split the same way as {@link java.io.BufferedReader#readLine()}, so a line is
+ * terminated by a line feed, a carriage return, or a carriage return followed by a line feed.
+ */
+final class SourceLines extends AbstractList<String> implements RandomAccess {
+  private final char[] data;
+  private final int[] starts;
+  private final int[] ends;
+  private final int size;
+
+  private SourceLines(char[] data, int[] starts, int[] ends, int size) {
+    this.data = data;
+    this.starts = starts;
+    this.ends = ends;
+    this.size = size;
+  }
+
+  static SourceLines create(char[] data, int length) {
+    int[] starts = new int[16];
+    int[] ends = new int[16];
+    int size = 0;
+    int start = 0;
+
+    for (int i = 0; i < length; ++i) {
+      char c = data[i];
+      if (c != '\n' && c != '\r') {
+        continue;
+      }
+
+      if (size == starts.length) {
+        starts = Arrays.copyOf(starts, size * 2);
+        ends = Arrays.copyOf(ends, size * 2);
+      }
+
+      starts[size] = start;
+      ends[size] = i;
+      ++size;
+
+      if (c == '\r' && i + 1 < length && data[i + 1] == '\n') {
+        ++i;
+      }
+      start = i + 1;
+    }
+
+    if (start < length) {
+      if (size == starts.length) {
+        starts = Arrays.copyOf(starts, size + 1);
+        ends = Arrays.copyOf(ends, size + 1);
+      }
+      starts[size] = start;
+      ends[size] = length;
+      ++size;
+    }
+
+    return new SourceLines(data, starts, ends, size);
+  }
+
+  @Override
+  public String get(int index) {
+    Objects.checkIndex(index, size);
+    return new String(data, starts[index], ends[index] - starts[index]);
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+}
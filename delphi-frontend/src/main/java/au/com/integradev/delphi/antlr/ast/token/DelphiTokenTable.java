@@ -0,0 +1,300 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2024 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.antlr.ast.token;
+
+import au.com.integradev.delphi.core.DelphiKeywords;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.function.IntUnaryOperator;
+import org.antlr.runtime.CharStream;
+import org.antlr.runtime.CommonToken;
+import org.antlr.runtime.Token;
+import org.sonar.plugins.communitydelphi.api.check.FilePosition;
+import org.sonar.plugins.communitydelphi.api.token.DelphiToken;
+import org.sonar.plugins.communitydelphi.api.token.DelphiTokenType;
+import org.sonarsource.analyzer.commons.TokenLocation;
+
+/**
+ * The tokens of a file, stored in columns of primitive arrays rather than as one object per token.
+ *
+ * <p>The elements of the list are lightweight views over a row of the table, which are created
+ * when first requested. Token images aren't stored in the table, and are instead sliced from the
+ * file's character stream the first time a view's image is requested.
+ */
+public final class DelphiTokenTable extends AbstractList<DelphiToken> implements RandomAccess {
+  private final CharStream input;
+  private final int size;
+  private final int[] types;
+  private final int[] startIndices;
+  private final int[] stopIndices;
+  private final int[] lines;
+  private final int[] columns;
+  private final int[] endLines;
+  private final int[] endColumns;
+  private final int[] indices;
+  private final DelphiToken[] views;
+
+  private DelphiTokenTable(Builder builder) {
+    this.input = builder.input;
+    this.size = builder.size;
+    this.types = Arrays.copyOf(builder.types, size);
+    this.startIndices = Arrays.copyOf(builder.startIndices, size);
+    this.stopIndices = Arrays.copyOf(builder.stopIndices, size);
+    this.lines = Arrays.copyOf(builder.lines, size);
+    this.columns = Arrays.copyOf(builder.columns, size);
+    this.endLines = Arrays.copyOf(builder.endLines, size);
+    this.endColumns = Arrays.copyOf(builder.endColumns, size);
+    this.indices = Arrays.copyOf(builder.indices, size);
+    this.views = new DelphiToken[size];
+  }
+
+  public static Builder builder(int capacity) {
+    return new Builder(capacity);
+  }
+
+  @Override
+  public DelphiToken get(int index) {
+    Objects.checkIndex(index, size);
+    DelphiToken view = views[index];
+    if (view == null) {
+      // Views are immutable and compared by row, so racing threads may safely create duplicates.
+      view = new TableToken(this, index);
+      views[index] = view;
+    }
+    return view;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  private String getImage(int row) {
+    return input.substring(startIndices[row], stopIndices[row]);
+  }
+
+  public static final class Builder {
+    private CharStream input;
+    private int size;
+    private int[] types;
+    private int[] startIndices;
+    private int[] stopIndices;
+    private int[] lines;
+    private int[] columns;
+    private int[] endLines;
+    private int[] endColumns;
+    private int[] indices;
+
+    private Builder(int capacity) {
+      types = new int[capacity];
+      startIndices = new int[capacity];
+      stopIndices = new int[capacity];
+      lines = new int[capacity];
+      columns = new int[capacity];
+      endLines = new int[capacity];
+      endColumns = new int[capacity];
+      indices = new int[capacity];
+    }
+
+    /**
+     * Adds a token lexed from the file's character stream
+     *
+     * @param token the token
+     * @param index the index of the token in the preprocessed token stream
+     * @return this builder
+     */
+    public Builder add(CommonToken token, int index) {
+      if (input == null) {
+        input = token.getInputStream();
+      } else if (input != token.getInputStream()) {
+        throw new IllegalArgumentException("Tokens must share a character stream");
+      }
+
+      if (size == types.length) {
+        grow();
+      }
+
+      types[size] = token.getType();
+      startIndices[size] = token.getStartIndex();
+      stopIndices[size] = token.getStopIndex();
+      lines[size] = token.getLine();
+      columns[size] = token.getCharPositionInLine();
+      indices[size] = index;
+
+      if (isMultiline(token.getType())) {
+        TokenLocation location =
+            new TokenLocation(token.getLine(), token.getCharPositionInLine(), token.getText());
+        endLines[size] = location.endLine();
+        endColumns[size] = location.endLineOffset();
+      } else {
+        endLines[size] = token.getLine();
+        endColumns[size] =
+            token.getCharPositionInLine() + token.getStopIndex() - token.getStartIndex() + 1;
+      }
+
+      ++size;
+
+      return this;
+    }
+
+    /**
+     * Replaces the index of each token that has been added, in the order they were added
+     *
+     * @param mapper function from the current index of a token to its new index
+     * @return this builder
+     */
+    public Builder mapIndices(IntUnaryOperator mapper) {
+      for (int i = 0; i < size; ++i) {
+        indices[i] = mapper.applyAsInt(indices[i]);
+      }
+      return this;
+    }
+
+    private static boolean isMultiline(int type) {
+      DelphiTokenType tokenType = DelphiTokenTypeFactory.createTokenType(type);
+      return tokenType == DelphiTokenType.COMMENT
+          || tokenType == DelphiTokenType.COMPILER_DIRECTIVE;
+    }
+
+    private void grow() {
+      int capacity = Math.max(16, types.length * 2);
+      types = Arrays.copyOf(types, capacity);
+      startIndices = Arrays.copyOf(startIndices, capacity);
+      stopIndices = Arrays.copyOf(stopIndices, capacity);
+      lines = Arrays.copyOf(lines, capacity);
+      columns = Arrays.copyOf(columns, capacity);
+      endLines = Arrays.copyOf(endLines, capacity);
+      endColumns = Arrays.copyOf(endColumns, capacity);
+      indices = Arrays.copyOf(indices, capacity);
+    }
+
+    public DelphiTokenTable build() {
+      return new DelphiTokenTable(this);
+    }
+  }
+
+  private static final class TableToken implements DelphiToken {
+    private final DelphiTokenTable table;
+    private final int row;
+    private String image;
+
+    private TableToken(DelphiTokenTable table, int row) {
+      this.table = table;
+      this.row = row;
+    }
+
+    @Override
+    public String getImage() {
+      if (image == null) {
+        image = table.getImage(row);
+      }
+      return image;
+    }
+
+    @Override
+    public int getBeginLine() {
+      return table.lines[row];
+    }
+
+    @Override
+    public int getBeginColumn() {
+      return table.columns[row];
+    }
+
+    @Override
+    public int getEndLine() {
+      return table.endLines[row];
+    }
+
+    @Override
+    public int getEndColumn() {
+      return table.endColumns[row];
+    }
+
+    @Override
+    public boolean isEof() {
+      return table.types[row] == Token.EOF;
+    }
+
+    @Override
+    public boolean isImaginary() {
+      return table.lines[row] == FilePosition.UNDEFINED_LINE;
+    }
+
+    @Override
+    public boolean isWhitespace() {
+      return getType() == DelphiTokenType.WHITESPACE;
+    }
+
+    @Override
+    public boolean isComment() {
+      return getType() == DelphiTokenType.COMMENT;
+    }
+
+    @Override
+    public boolean isCompilerDirective() {
+      return getType() == DelphiTokenType.COMPILER_DIRECTIVE;
+    }
+
+    @Override
+    public boolean isKeyword() {
+      return DelphiKeywords.KEYWORDS.contains(getType());
+    }
+
+    @Override
+    public boolean isNil() {
+      return false;
+    }
+
+    @Override
+    public int getIndex() {
+      return table.indices[row];
+    }
+
+    @Override
+    public DelphiTokenType getType() {
+      return DelphiTokenTypeFactory.createTokenType(table.types[row]);
+    }
+
+    @Override
+    public boolean isIncludedToken() {
+      return false;
+    }
+
+    @Override
+    @SuppressWarnings("ReferenceEquality") // Tables are compared by identity, like their tokens
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      TableToken other = (TableToken) o;
+      return table == other.table && row == other.row;
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * System.identityHashCode(table) + row;
+    }
+  }
+}
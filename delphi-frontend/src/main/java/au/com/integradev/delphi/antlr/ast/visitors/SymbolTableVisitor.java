@@ -52,6 +52,7 @@ import au.com.integradev.delphi.symbol.scope.WithScopeImpl;
 import au.com.integradev.delphi.type.TypeUtils;
 import au.com.integradev.delphi.type.factory.ClassReferenceTypeImpl;
 import au.com.integradev.delphi.type.factory.PointerTypeImpl;
+import au.com.integradev.delphi.type.factory.TypeFactoryImpl;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Iterables;
 import java.util.ArrayDeque;
@@ -768,6 +769,11 @@ public abstract class SymbolTableVisitor implements DelphiParserVisitor<Data> {
     DelphiScope parent = Objects.requireNonNull(data.currentScope().getParent());
     ((DelphiScopeImpl) parent).addDeclaration(declaration);
 
+    if (type.isStruct() && declaration.getForwardDeclaration() != null) {
+      // The forward declared type was completed, so any argument matches involving it are stale
+      ((TypeFactoryImpl) data.typeFactory).getArgumentMatchCache().invalidateAll();
+    }
+
     return visitScope(node, data);
   }
 
@@ -19,9 +19,14 @@
 package au.com.integradev.delphi.check;
 
 import au.com.integradev.delphi.file.DelphiFile.DelphiInputFile;
+import au.com.integradev.delphi.preprocessor.CompilerDirectiveIndex;
 import au.com.integradev.delphi.preprocessor.CompilerSwitchRegistry;
 import au.com.integradev.delphi.reporting.DelphiIssueBuilder;
+import au.com.integradev.delphi.reporting.TestCodeDetector;
+import au.com.integradev.delphi.reporting.TestCodeIndex;
+import com.google.common.base.Suppliers;
 import java.util.List;
+import java.util.function.Supplier;
 import org.sonar.api.batch.sensor.SensorContext;
 import org.sonar.plugins.communitydelphi.api.ast.DelphiAst;
 import org.sonar.plugins.communitydelphi.api.check.DelphiCheck;
@@ -36,6 +41,7 @@ public class DelphiCheckContextImpl implements DelphiCheckContext {
   private final DelphiInputFile delphiFile;
   private final CompilerDirectiveParser compilerDirectiveParser;
   private final MasterCheckRegistrar checkRegistrar;
+  private final Supplier<TestCodeIndex> testCodeIndex;
 
   public DelphiCheckContextImpl(
       DelphiCheck check,
@@ -43,11 +49,34 @@ public class DelphiCheckContextImpl implements DelphiCheckContext {
       DelphiInputFile delphiFile,
       CompilerDirectiveParser compilerDirectiveParser,
       MasterCheckRegistrar checkRegistrar) {
+    this(
+        check,
+        sensorContext,
+        delphiFile,
+        compilerDirectiveParser,
+        checkRegistrar,
+        createTestCodeIndexSupplier(sensorContext, delphiFile));
+  }
+
+  public DelphiCheckContextImpl(
+      DelphiCheck check,
+      SensorContext sensorContext,
+      DelphiInputFile delphiFile,
+      CompilerDirectiveParser compilerDirectiveParser,
+      MasterCheckRegistrar checkRegistrar,
+      Supplier<TestCodeIndex> testCodeIndex) {
     this.check = check;
     this.sensorContext = sensorContext;
     this.delphiFile = delphiFile;
     this.compilerDirectiveParser = compilerDirectiveParser;
     this.checkRegistrar = checkRegistrar;
+    this.testCodeIndex = testCodeIndex;
+  }
+
+  public static Supplier<TestCodeIndex> createTestCodeIndexSupplier(
+      SensorContext sensorContext, DelphiInputFile delphiFile) {
+    return Suppliers.memoize(
+        () -> new TestCodeDetector(sensorContext.config()).createIndex(delphiFile.getAst()));
   }
 
   @Override
@@ -70,6 +99,11 @@ public class DelphiCheckContextImpl implements DelphiCheckContext {
     return delphiFile.getCompilerSwitchRegistry();
   }
 
+  @Override
+  public CompilerDirectiveIndex getCompilerDirectiveIndex() {
+    return delphiFile.getCompilerDirectiveIndex();
+  }
+
   @Override
   public CompilerDirectiveParser getCompilerDirectiveParser() {
     return compilerDirectiveParser;
@@ -82,6 +116,6 @@ public class DelphiCheckContextImpl implements DelphiCheckContext {
 
   @Override
   public DelphiIssueBuilder newIssue() {
-    return new DelphiIssueBuilder(check, sensorContext, delphiFile, checkRegistrar);
+    return new DelphiIssueBuilder(check, sensorContext, delphiFile, checkRegistrar, testCodeIndex);
   }
 }
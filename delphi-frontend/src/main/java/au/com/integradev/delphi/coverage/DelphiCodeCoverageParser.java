@@ -23,28 +23,54 @@
 package au.com.integradev.delphi.coverage;
 
 import au.com.integradev.delphi.msbuild.DelphiProjectHelper;
-import com.google.common.base.Splitter;
+import com.google.common.base.Suppliers;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.BufferedInputStream;
 import java.io.File;
-import javax.xml.XMLConstants;
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.sensor.SensorContext;
 import org.sonar.api.batch.sensor.coverage.NewCoverage;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.SAXException;
 
+/**
+ * Parses DelphiCodeCoverage XML reports.
+ *
+ * <p>A single report is streamed, so memory usage depends on the largest {@code <file>} element
+ * rather than on the size of the report. When several reports are parsed, they're read ahead of
+ * time on a pool of worker threads and reported in order on the calling thread. Each worker reads
+ * ahead at most one report, whose line hits are buffered in memory until the report is saved.
+ */
 public class DelphiCodeCoverageParser implements DelphiCoverageParser {
   private static final Logger LOG = LoggerFactory.getLogger(DelphiCodeCoverageParser.class);
+
   private final DelphiProjectHelper delphiProjectHelper;
+  private final Supplier<Map<String, InputFile>> filesByBasename;
 
   public DelphiCodeCoverageParser(DelphiProjectHelper delphiProjectHelper) {
     this.delphiProjectHelper = delphiProjectHelper;
+    this.filesByBasename = Suppliers.memoize(delphiProjectHelper::getFilesByBasename);
   }
 
   @Override
@@ -54,73 +80,189 @@ public class DelphiCodeCoverageParser implements DelphiCoverageParser {
       return;
     }
 
-    LOG.info("Parsing coverage report: {}", reportFile);
-    parseReportFile(context, reportFile);
+    Map<String, InputFile> files = filesByBasename.get();
+    parseReportFile(reportFile, files, coverage -> coverage.save(context));
   }
 
-  private void parseReportFile(SensorContext sensorContext, File reportFile) {
+  @Override
+  public void parse(SensorContext context, List<File> reportFiles) {
+    List<File> existingFiles =
+        reportFiles.stream()
+            .filter(
+                reportFile -> {
+                  if (!reportFile.exists()) {
+                    LOG.warn("Report file '{}' does not exist", reportFile);
+                    return false;
+                  }
+                  return true;
+                })
+            .collect(Collectors.toList());
+
+    int threads = Math.min(delphiProjectHelper.getThreads(), existingFiles.size());
+    Map<String, InputFile> files = filesByBasename.get();
+
+    if (threads <= 1) {
+      existingFiles.forEach(
+          reportFile -> parseReportFile(reportFile, files, coverage -> coverage.save(context)));
+      return;
+    }
+
+    ExecutorService executor =
+        Executors.newFixedThreadPool(
+            threads,
+            new ThreadFactoryBuilder().setNameFormat("delphi-coverage-%d").setDaemon(true).build());
     try {
-      DocumentBuilderFactory docBuilderFactory = DocumentBuilderFactory.newInstance();
-      docBuilderFactory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
-      docBuilderFactory.setAttribute(XMLConstants.ACCESS_EXTERNAL_DTD, "");
-      docBuilderFactory.setAttribute(XMLConstants.ACCESS_EXTERNAL_SCHEMA, "");
-      DocumentBuilder docBuilder = docBuilderFactory.newDocumentBuilder();
-      Document doc = docBuilder.parse(reportFile);
-
-      doc.getDocumentElement().normalize();
-
-      NodeList dataNodes = doc.getElementsByTagName("linehits");
-      Element lineHits = (Element) dataNodes.item(0);
-      if (lineHits == null) {
-        LOG.warn("'linehits' element not found in coverage report: {}", reportFile);
-        return;
+      Iterator<File> remaining = existingFiles.iterator();
+      Deque<Future<List<FileCoverage>>> pending = new ArrayDeque<>();
+      for (int i = 0; i < threads && remaining.hasNext(); ++i) {
+        pending.add(submitReportFile(executor, remaining.next(), files));
+      }
+
+      while (!pending.isEmpty()) {
+        Futures.getUnchecked(pending.remove()).forEach(coverage -> coverage.save(context));
+        if (remaining.hasNext()) {
+          pending.add(submitReportFile(executor, remaining.next(), files));
+        }
       }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static Future<List<FileCoverage>> submitReportFile(
+      ExecutorService executor, File reportFile, Map<String, InputFile> files) {
+    return executor.submit(
+        () -> {
+          List<FileCoverage> result = new ArrayList<>();
+          parseReportFile(reportFile, files, result::add);
+          return result;
+        });
+  }
 
-      NodeList files = lineHits.getElementsByTagName("file");
-      for (int i = 0; i < files.getLength(); i++) {
-        parseFileNode(sensorContext, files.item(i));
+  private static void parseReportFile(
+      File reportFile, Map<String, InputFile> files, Consumer<FileCoverage> consumer) {
+    LOG.info("Parsing coverage report: {}", reportFile);
+    try (InputStream input = new BufferedInputStream(Files.newInputStream(reportFile.toPath()))) {
+      XMLStreamReader reader = createInputFactory().createXMLStreamReader(input);
+      try {
+        if (!skipToElement(reader, "linehits")) {
+          LOG.warn("'linehits' element not found in coverage report: {}", reportFile);
+          return;
+        }
+        parseLineHits(reader, files, consumer);
+      } finally {
+        reader.close();
       }
-    } catch (SAXException e) {
+    } catch (XMLStreamException e) {
       LOG.error("Failed to parse coverage report: ", e);
     } catch (Exception e) {
       LOG.error("Unexpected exception while parsing coverage reports: ", e);
     }
   }
 
-  private void parseFileNode(SensorContext sensorContext, Node srcFile) {
-    String fileName = srcFile.getAttributes().getNamedItem("name").getTextContent();
-    InputFile sourceFile = delphiProjectHelper.getFileFromBasename(fileName);
+  private static XMLInputFactory createInputFactory() {
+    XMLInputFactory factory = XMLInputFactory.newInstance();
+    factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    return factory;
+  }
+
+  private static boolean skipToElement(XMLStreamReader reader, String name)
+      throws XMLStreamException {
+    while (reader.hasNext()) {
+      if (reader.next() == XMLStreamConstants.START_ELEMENT
+          && reader.getLocalName().equals(name)) {
+        return true;
+      }
+    }
+    return false;
+  }
 
+  private static void parseLineHits(
+      XMLStreamReader reader, Map<String, InputFile> files, Consumer<FileCoverage> consumer)
+      throws XMLStreamException {
+    FileCoverage coverage = null;
+    LineHitsReader lineHitsReader = null;
+
+    while (reader.hasNext()) {
+      switch (reader.next()) {
+        case XMLStreamConstants.START_ELEMENT:
+          if (coverage == null && reader.getLocalName().equals("file")) {
+            coverage = createFileCoverage(reader.getAttributeValue(null, "name"), files);
+            lineHitsReader = coverage == null ? null : new LineHitsReader(coverage::add);
+          }
+          break;
+        case XMLStreamConstants.CHARACTERS:
+        case XMLStreamConstants.CDATA:
+        case XMLStreamConstants.SPACE:
+          if (lineHitsReader != null) {
+            lineHitsReader.read(
+                reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+          }
+          break;
+        case XMLStreamConstants.END_ELEMENT:
+          if (reader.getLocalName().equals("linehits")) {
+            return;
+          }
+          if (lineHitsReader != null && reader.getLocalName().equals("file")) {
+            lineHitsReader.finish();
+            consumer.accept(coverage);
+            coverage = null;
+            lineHitsReader = null;
+          }
+          break;
+        default:
+          // Do nothing
+      }
+    }
+  }
+
+  @Nullable
+  private static FileCoverage createFileCoverage(
+      @Nullable String fileName, Map<String, InputFile> files) {
+    InputFile sourceFile = fileName == null ? null : files.get(fileName);
     if (sourceFile == null) {
       LOG.debug("File not found in project: {}", fileName);
-      return;
+      return null;
     }
     LOG.debug("Parsing line hit information for file: {}", fileName);
+    return new FileCoverage(sourceFile);
+  }
 
-    NewCoverage newCoverage = sensorContext.newCoverage();
-    newCoverage.onFile(sourceFile);
+  /**
+   * Line hits of a source file, buffered as interleaved line numbers and hit counts until they're
+   * reported in bulk.
+   */
+  private static final class FileCoverage {
+    private final InputFile inputFile;
+    private int[] lineHits = new int[16];
+    private int size;
 
-    parseValue(srcFile.getTextContent(), newCoverage, sourceFile.lines());
-    newCoverage.save();
-  }
+    private FileCoverage(InputFile inputFile) {
+      this.inputFile = inputFile;
+    }
 
-  private static void parseValue(String lineCoverage, NewCoverage newCoverage, int numLines) {
-    Splitter.on(';')
-        .split(lineCoverage)
-        .forEach(lineHit -> parseLineHit(lineHit, numLines, newCoverage));
-  }
+    private void add(int line, int hits) {
+      if (size == lineHits.length) {
+        lineHits = Arrays.copyOf(lineHits, size * 2);
+      }
+      lineHits[size++] = line;
+      lineHits[size++] = hits;
+    }
 
-  private static void parseLineHit(String lineHit, int numLines, NewCoverage newCoverage) {
-    int eq = lineHit.indexOf('=');
-    if (eq > 0) {
-      int lineNumber = Integer.parseInt(lineHit.substring(0, eq));
-      int lineHits = Integer.parseInt(lineHit.substring(eq + 1));
-      if (lineNumber > numLines) {
-        LOG.debug(
-            "skipping line hit on line {} because it's beyond the end of the file", lineNumber);
-      } else {
-        newCoverage.lineHits(lineNumber, lineHits);
+    private void save(SensorContext context) {
+      int numLines = inputFile.lines();
+      NewCoverage newCoverage = context.newCoverage().onFile(inputFile);
+      for (int i = 0; i < size; i += 2) {
+        int lineNumber = lineHits[i];
+        if (lineNumber > numLines) {
+          LOG.debug(
+              "skipping line hit on line {} because it's beyond the end of the file", lineNumber);
+        } else {
+          newCoverage.lineHits(lineNumber, lineHits[i + 1]);
+        }
       }
+      newCoverage.save();
     }
   }
 }
@@ -23,8 +23,20 @@
 package au.com.integradev.delphi.coverage;
 
 import java.io.File;
+import java.util.List;
 import org.sonar.api.batch.sensor.SensorContext;
 
 public interface DelphiCoverageParser {
   void parse(SensorContext context, File reportFile);
+
+  /**
+   * Parses several coverage reports. Implementations may read the reports concurrently, but must
+   * report coverage on the calling thread.
+   *
+   * @param context the sensor context that coverage is reported to
+   * @param reportFiles the coverage reports to parse
+   */
+  default void parse(SensorContext context, List<File> reportFiles) {
+    reportFiles.forEach(reportFile -> parse(context, reportFile));
+  }
 }
@@ -0,0 +1,110 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2024 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.coverage;
+
+/**
+ * Reads the {@code line=hits;line=hits} text of a DelphiCodeCoverage {@code <file>} element.
+ *
+ * <p>The text is fed in as it arrives from the XML stream, which may split it at any character,
+ * so no intermediate strings are created. Pairs without a line number are ignored, and malformed
+ * pairs cause a {@link NumberFormatException}.
+ */
+final class LineHitsReader {
+  interface LineHitConsumer {
+    void accept(int line, int hits);
+  }
+
+  private final LineHitConsumer consumer;
+
+  private long line;
+  private long hits;
+  private int lineLength;
+  private int hitsLength;
+  private boolean afterEquals;
+  private boolean invalid;
+
+  LineHitsReader(LineHitConsumer consumer) {
+    this.consumer = consumer;
+  }
+
+  void read(char[] characters, int start, int length) {
+    int end = start + length;
+    for (int i = start; i < end; ++i) {
+      read(characters[i]);
+    }
+  }
+
+  void finish() {
+    endPair();
+  }
+
+  private void read(char character) {
+    if (character == ';') {
+      endPair();
+    } else if (character == '=') {
+      invalid |= afterEquals;
+      afterEquals = true;
+    } else if (!Character.isWhitespace(character)) {
+      readValueCharacter(character);
+    }
+  }
+
+  private void readValueCharacter(char character) {
+    if (afterEquals) {
+      ++hitsLength;
+    } else {
+      ++lineLength;
+    }
+
+    if (invalid || character < '0' || character > '9') {
+      invalid = true;
+      return;
+    }
+
+    int digit = character - '0';
+    if (afterEquals) {
+      hits = hits * 10 + digit;
+      invalid = hits > Integer.MAX_VALUE;
+    } else {
+      line = line * 10 + digit;
+      invalid = line > Integer.MAX_VALUE;
+    }
+  }
+
+  private void endPair() {
+    boolean hasLine = afterEquals && lineLength > 0;
+    boolean malformed = invalid || hitsLength == 0;
+    int pairLine = (int) line;
+    int pairHits = (int) hits;
+
+    line = 0;
+    hits = 0;
+    lineLength = 0;
+    hitsLength = 0;
+    afterEquals = false;
+    invalid = false;
+
+    if (hasLine) {
+      if (malformed) {
+        throw new NumberFormatException("Malformed line hit in coverage report");
+      }
+      consumer.accept(pairLine, pairHits);
+    }
+  }
+}
@@ -24,13 +24,21 @@ import au.com.integradev.delphi.compiler.Platform;
 import au.com.integradev.delphi.file.DelphiFile.DelphiInputFile;
 import au.com.integradev.delphi.msbuild.DelphiProjectHelper;
 import au.com.integradev.delphi.preprocessor.directive.CompilerDirectiveParserImpl;
+import au.com.integradev.delphi.reporting.TestCodeIndex;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import org.sonar.api.SonarProduct;
 import org.sonar.api.SonarRuntime;
 import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.rule.RuleScope;
 import org.sonar.api.utils.AnnotationUtils;
+import org.sonar.plugins.communitydelphi.api.ast.DelphiAst;
+import org.sonar.plugins.communitydelphi.api.ast.DelphiNode;
 import org.sonar.plugins.communitydelphi.api.check.DelphiCheck;
 import org.sonar.plugins.communitydelphi.api.check.DelphiCheckContext;
 import org.sonar.plugins.communitydelphi.api.check.SonarLintUnsupported;
@@ -40,6 +48,8 @@ public class DelphiChecksExecutor implements Executor {
   private final DelphiProjectHelper delphiProjectHelper;
   private final MasterCheckRegistrar checkRegistrar;
   private final SonarRuntime sonarRuntime;
+  private final Map<Class<?>, VisitorSubscription> subscriptions = new HashMap<>();
+  private CompilerDirectiveParser compilerDirectiveParser;
 
   public DelphiChecksExecutor(
       DelphiProjectHelper delphiProjectHelper,
@@ -52,8 +62,14 @@ public class DelphiChecksExecutor implements Executor {
 
   @Override
   public void execute(Context context, DelphiInputFile delphiFile) {
-    Platform platform = delphiProjectHelper.getToolchain().platform;
-    CompilerDirectiveParser compilerDirectiveParser = new CompilerDirectiveParserImpl(platform);
+    if (context.canSkipUnchangedFile(delphiFile.getInputFile())) {
+      // Issues on unchanged files are carried over from the previous analysis.
+      return;
+    }
+
+    CompilerDirectiveParser compilerDirectiveParser = getCompilerDirectiveParser();
+    Supplier<TestCodeIndex> testCodeIndex =
+        DelphiCheckContextImpl.createTestCodeIndexSupplier(context.sensorContext(), delphiFile);
     Function<DelphiCheck, DelphiCheckContext> createCheckContext =
         check ->
             new DelphiCheckContextImpl(
@@ -61,28 +77,87 @@ public class DelphiChecksExecutor implements Executor {
                 context.sensorContext(),
                 delphiFile,
                 compilerDirectiveParser,
-                checkRegistrar);
+                checkRegistrar,
+                testCodeIndex);
 
-    runChecks(RuleScope.ALL, createCheckContext);
+    List<ActiveCheck> checks = new ArrayList<>();
+    addChecks(checks, RuleScope.ALL, createCheckContext);
     // Main files may contain test code.
-    runChecks(RuleScope.TEST, createCheckContext);
+    addChecks(checks, RuleScope.TEST, createCheckContext);
     // Test files do not contain main code.
     if (delphiFile.getInputFile().type() != InputFile.Type.TEST) {
-      runChecks(RuleScope.MAIN, createCheckContext);
+      addChecks(checks, RuleScope.MAIN, createCheckContext);
+    }
+
+    runChecks(delphiFile.getAst(), checks);
+  }
+
+  private CompilerDirectiveParser getCompilerDirectiveParser() {
+    if (compilerDirectiveParser == null) {
+      Platform platform = delphiProjectHelper.getToolchain().platform;
+      compilerDirectiveParser = new CompilerDirectiveParserImpl(platform);
     }
+    return compilerDirectiveParser;
   }
 
-  private void runChecks(
-      RuleScope scope, Function<DelphiCheck, DelphiCheckContext> createCheckContext) {
+  private void addChecks(
+      List<ActiveCheck> checks,
+      RuleScope scope,
+      Function<DelphiCheck, DelphiCheckContext> createCheckContext) {
     checkRegistrar.getChecks(scope).stream()
         .filter(this::isCheckSupportedOnPlatform)
-        .forEach(
-            check -> {
-              DelphiCheckContext context = createCheckContext.apply(check);
-              check.start(context);
-              check.visit(context.getAst(), context);
-              check.end(context);
-            });
+        .map(
+            check ->
+                new ActiveCheck(
+                    check,
+                    createCheckContext.apply(check),
+                    subscriptions.computeIfAbsent(check.getClass(), VisitorSubscription::of)))
+        .forEach(checks::add);
+  }
+
+  private static void runChecks(DelphiAst ast, List<ActiveCheck> checks) {
+    checks.forEach(check -> check.check.start(check.context));
+
+    // The AST is walked once, and each check is handed the outermost nodes that it overrides the
+    // visit overload for. From there, the check visits the subtree itself as usual.
+    List<ActiveCheck> remaining = new ArrayList<>();
+    for (ActiveCheck check : checks) {
+      if (check.subscription.isSubscribedTo(DelphiAst.class)) {
+        check.check.visit(ast, check.context);
+      } else {
+        remaining.add(check);
+      }
+    }
+
+    if (!remaining.isEmpty()) {
+      for (DelphiNode child : ast.getChildren()) {
+        dispatch(child, remaining);
+      }
+    }
+
+    checks.forEach(check -> check.check.end(check.context));
+  }
+
+  private static void dispatch(DelphiNode node, List<ActiveCheck> checks) {
+    List<ActiveCheck> remaining = checks;
+
+    for (int i = 0; i < checks.size(); ++i) {
+      ActiveCheck check = checks.get(i);
+      if (check.subscription.isSubscribedTo(node.getClass())) {
+        if (remaining == checks) {
+          remaining = new ArrayList<>(checks.subList(0, i));
+        }
+        node.accept(check.check, check.context);
+      } else if (remaining != checks) {
+        remaining.add(check);
+      }
+    }
+
+    if (!remaining.isEmpty()) {
+      for (DelphiNode child : node.getChildren()) {
+        dispatch(child, remaining);
+      }
+    }
   }
 
   private boolean isCheckSupportedOnPlatform(DelphiCheck check) {
@@ -94,4 +169,17 @@ public class DelphiChecksExecutor implements Executor {
   public Set<Class<? extends Executor>> dependencies() {
     return Set.of(DelphiSymbolTableExecutor.class, DelphiNoSonarExecutor.class);
   }
+
+  private static final class ActiveCheck {
+    private final DelphiCheck check;
+    private final DelphiCheckContext context;
+    private final VisitorSubscription subscription;
+
+    private ActiveCheck(
+        DelphiCheck check, DelphiCheckContext context, VisitorSubscription subscription) {
+      this.check = check;
+      this.context = context;
+      this.subscription = subscription;
+    }
+  }
 }
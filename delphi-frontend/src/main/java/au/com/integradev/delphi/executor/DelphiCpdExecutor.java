@@ -28,30 +28,36 @@ public class DelphiCpdExecutor extends DelphiTokenExecutor {
   static final String STRING_LITERAL = "STRING_LITERAL";
   static final String NUMERIC_LITERAL = "NUMERIC_LITERAL";
 
-  private NewCpdTokens cpdTokens;
-
   @Override
-  public void onFile(SensorContext context, DelphiInputFile delphiFile) {
-    cpdTokens = context.newCpdTokens().onFile(delphiFile.getInputFile());
+  public TokenHandler onFile(SensorContext context, DelphiInputFile delphiFile) {
+    return new CpdTokenHandler(context.newCpdTokens().onFile(delphiFile.getInputFile()));
   }
 
-  @Override
-  public void handleToken(DelphiToken token) {
-    if (token.isWhitespace() || token.isComment()) {
-      return;
+  private static final class CpdTokenHandler implements TokenHandler {
+    private final NewCpdTokens cpdTokens;
+
+    private CpdTokenHandler(NewCpdTokens cpdTokens) {
+      this.cpdTokens = cpdTokens;
     }
 
-    cpdTokens.addToken(
-        token.getBeginLine(),
-        token.getBeginColumn(),
-        token.getEndLine(),
-        token.getEndColumn(),
-        getNormalizedImage(token));
-  }
+    @Override
+    public void handleToken(DelphiToken token) {
+      if (token.isWhitespace() || token.isComment()) {
+        return;
+      }
 
-  @Override
-  public void save() {
-    cpdTokens.save();
+      cpdTokens.addToken(
+          token.getBeginLine(),
+          token.getBeginColumn(),
+          token.getEndLine(),
+          token.getEndColumn(),
+          getNormalizedImage(token));
+    }
+
+    @Override
+    public void save() {
+      cpdTokens.save();
+    }
   }
 
   private static String getNormalizedImage(DelphiToken token) {
@@ -26,32 +26,9 @@ import org.sonar.plugins.communitydelphi.api.token.DelphiToken;
 import org.sonar.plugins.communitydelphi.api.token.DelphiTokenType;
 
 public class DelphiHighlightExecutor extends DelphiTokenExecutor {
-  private NewHighlighting highlighter;
-  private boolean insideAsmBlock;
-
   @Override
-  public void onFile(SensorContext context, DelphiInputFile delphiFile) {
-    highlighter = context.newHighlighting().onFile(delphiFile.getInputFile());
-    insideAsmBlock = false;
-  }
-
-  @Override
-  public void handleToken(DelphiToken token) {
-    if (shouldSkip(token)) {
-      return;
-    }
-
-    TypeOfText highlightType = getHighlightingType(token);
-    if (highlightType == null) {
-      return;
-    }
-
-    highlighter.highlight(
-        token.getBeginLine(),
-        token.getBeginColumn(),
-        token.getEndLine(),
-        token.getEndColumn(),
-        highlightType);
+  public TokenHandler onFile(SensorContext context, DelphiInputFile delphiFile) {
+    return new HighlightTokenHandler(context.newHighlighting().onFile(delphiFile.getInputFile()));
   }
 
   private static TypeOfText getHighlightingType(DelphiToken token) {
@@ -84,24 +61,52 @@ public class DelphiHighlightExecutor extends DelphiTokenExecutor {
     }
   }
 
-  private boolean shouldSkip(DelphiToken token) {
-    DelphiTokenType type = token.getType();
+  private static final class HighlightTokenHandler implements TokenHandler {
+    private final NewHighlighting highlighter;
+    private boolean insideAsmBlock;
 
-    if (type == DelphiTokenType.ASM) {
-      // We still want to highlight the asm keyword
-      insideAsmBlock = true;
-      return false;
+    private HighlightTokenHandler(NewHighlighting highlighter) {
+      this.highlighter = highlighter;
     }
 
-    if (insideAsmBlock) {
-      insideAsmBlock = (type != DelphiTokenType.END);
+    @Override
+    public void handleToken(DelphiToken token) {
+      if (shouldSkip(token)) {
+        return;
+      }
+
+      TypeOfText highlightType = getHighlightingType(token);
+      if (highlightType == null) {
+        return;
+      }
+
+      highlighter.highlight(
+          token.getBeginLine(),
+          token.getBeginColumn(),
+          token.getEndLine(),
+          token.getEndColumn(),
+          highlightType);
     }
 
-    return insideAsmBlock && !token.isComment();
-  }
+    private boolean shouldSkip(DelphiToken token) {
+      DelphiTokenType type = token.getType();
 
-  @Override
-  public void save() {
-    highlighter.save();
+      if (type == DelphiTokenType.ASM) {
+        // We still want to highlight the asm keyword
+        insideAsmBlock = true;
+        return false;
+      }
+
+      if (insideAsmBlock) {
+        insideAsmBlock = (type != DelphiTokenType.END);
+      }
+
+      return insideAsmBlock && !token.isComment();
+    }
+
+    @Override
+    public void save() {
+      highlighter.save();
+    }
   }
 }
@@ -23,6 +23,7 @@ import au.com.integradev.delphi.antlr.ast.visitors.MetricsVisitor.Data;
 import au.com.integradev.delphi.file.DelphiFile.DelphiInputFile;
 import java.io.Serializable;
 import java.util.Set;
+import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.sensor.SensorContext;
 import org.sonar.api.measures.CoreMetrics;
 import org.sonar.api.measures.FileLinesContext;
@@ -31,9 +32,7 @@ import org.sonar.api.measures.Metric;
 
 public class DelphiMetricsExecutor implements Executor {
   private static final MetricsVisitor VISITOR = new MetricsVisitor();
-  private SensorContext context;
   private final FileLinesContextFactory fileLinesContextFactory;
-  private DelphiInputFile file;
 
   public DelphiMetricsExecutor(FileLinesContextFactory fileLinesContextFactory) {
     this.fileLinesContextFactory = fileLinesContextFactory;
@@ -41,30 +40,36 @@ public class DelphiMetricsExecutor implements Executor {
 
   @Override
   public void execute(Context context, DelphiInputFile file) {
-    this.context = context.sensorContext();
-    this.file = file;
+    SensorContext sensorContext = context.sensorContext();
+    InputFile inputFile = file.getInputFile();
 
     Data metrics = VISITOR.visit(file.getAst(), new Data());
 
-    saveMetricOnFile(CoreMetrics.CLASSES, metrics.getClasses());
-    saveMetricOnFile(CoreMetrics.FUNCTIONS, metrics.getRoutines());
-    saveMetricOnFile(CoreMetrics.COMPLEXITY, metrics.getComplexity());
-    saveMetricOnFile(CoreMetrics.COMMENT_LINES, metrics.getCommentLines());
-    saveMetricOnFile(CoreMetrics.STATEMENTS, metrics.getStatements());
-    saveMetricOnFile(CoreMetrics.COGNITIVE_COMPLEXITY, metrics.getCognitiveComplexity());
+    saveMetricOnFile(sensorContext, inputFile, CoreMetrics.CLASSES, metrics.getClasses());
+    saveMetricOnFile(sensorContext, inputFile, CoreMetrics.FUNCTIONS, metrics.getRoutines());
+    saveMetricOnFile(sensorContext, inputFile, CoreMetrics.COMPLEXITY, metrics.getComplexity());
+    saveMetricOnFile(
+        sensorContext, inputFile, CoreMetrics.COMMENT_LINES, metrics.getCommentLines());
+    saveMetricOnFile(sensorContext, inputFile, CoreMetrics.STATEMENTS, metrics.getStatements());
+    saveMetricOnFile(
+        sensorContext,
+        inputFile,
+        CoreMetrics.COGNITIVE_COMPLEXITY,
+        metrics.getCognitiveComplexity());
 
     Set<Integer> codeLines = metrics.getCodeLines();
-    saveMetricOnFile(CoreMetrics.NCLOC, codeLines.size());
-    saveCodeLinesOnFile(codeLines);
+    saveMetricOnFile(sensorContext, inputFile, CoreMetrics.NCLOC, codeLines.size());
+    saveCodeLinesOnFile(inputFile, codeLines);
   }
 
-  private <T extends Serializable> void saveMetricOnFile(Metric<T> metric, T value) {
-    context.<T>newMeasure().forMetric(metric).on(file.getInputFile()).withValue(value).save();
+  private static <T extends Serializable> void saveMetricOnFile(
+      SensorContext context, InputFile inputFile, Metric<T> metric, T value) {
+    context.<T>newMeasure().forMetric(metric).on(inputFile).withValue(value).save();
   }
 
-  private void saveCodeLinesOnFile(Set<Integer> codeLines) {
-    FileLinesContext fileLinesContext = fileLinesContextFactory.createFor(file.getInputFile());
-    for (int line = 1; line <= file.getInputFile().lines(); line++) {
+  private void saveCodeLinesOnFile(InputFile inputFile, Set<Integer> codeLines) {
+    FileLinesContext fileLinesContext = fileLinesContextFactory.createFor(inputFile);
+    for (int line = 1; line <= inputFile.lines(); line++) {
       fileLinesContext.setIntValue(
           CoreMetrics.NCLOC_DATA_KEY, line, codeLines.contains(line) ? 1 : 0);
     }
@@ -22,6 +22,7 @@ import au.com.integradev.delphi.antlr.ast.visitors.SonarSymbolTableVisitor;
 import au.com.integradev.delphi.antlr.ast.visitors.SymbolAssociationVisitor;
 import au.com.integradev.delphi.antlr.ast.visitors.SymbolAssociationVisitor.Data;
 import au.com.integradev.delphi.file.DelphiFile.DelphiInputFile;
+import au.com.integradev.delphi.symbol.scope.FileScopeImpl;
 import org.sonar.api.batch.sensor.symbol.NewSymbolTable;
 
 public class DelphiSymbolTableExecutor implements Executor {
@@ -33,6 +34,12 @@ public class DelphiSymbolTableExecutor implements Executor {
     // Attach AST nodes to scopes, declarations, and occurrences from the symbol table.
     ASSOCIATE_VISITOR.visit(file.getAst(), new Data(context.symbolTable()));
 
+    // The registrations are only needed for association, so free them for the rest of the scan.
+    FileScopeImpl fileScope = (FileScopeImpl) file.getAst().getScope();
+    fileScope.unregisterScopes();
+    fileScope.unregisterDeclarations();
+    fileScope.unregisterOccurrences();
+
     // Provide symbol information to the Sonar API, which can be viewed in the web interface.
     NewSymbolTable sonarSymbolTable =
         context.sensorContext().newSymbolTable().onFile(file.getInputFile());
@@ -26,16 +26,25 @@ public abstract class DelphiTokenExecutor implements Executor {
 
   @Override
   public void execute(Context context, DelphiInputFile delphiFile) {
-    onFile(context.sensorContext(), delphiFile);
+    TokenHandler handler = onFile(context.sensorContext(), delphiFile);
     for (DelphiToken token : delphiFile.getTokens()) {
-      handleToken(token);
+      handler.handleToken(token);
     }
-    save();
+    handler.save();
   }
 
-  protected abstract void onFile(SensorContext context, DelphiInputFile file);
+  /**
+   * Creates a handler for the tokens in a file
+   *
+   * @param context the sensor context
+   * @param file the file being analyzed
+   * @return a handler that holds all state for this file
+   */
+  protected abstract TokenHandler onFile(SensorContext context, DelphiInputFile file);
 
-  protected abstract void handleToken(DelphiToken token);
+  protected interface TokenHandler {
+    void handleToken(DelphiToken token);
 
-  protected abstract void save();
+    void save();
+  }
 }
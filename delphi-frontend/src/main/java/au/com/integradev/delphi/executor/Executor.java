@@ -22,6 +22,7 @@ import au.com.integradev.delphi.file.DelphiFile.DelphiInputFile;
 import au.com.integradev.delphi.symbol.SymbolTable;
 import java.util.Collections;
 import java.util.Set;
+import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.sensor.SensorContext;
 import org.sonar.api.scanner.ScannerSide;
 import org.sonarsource.api.sonarlint.SonarLintSide;
@@ -53,5 +54,16 @@ public interface Executor {
      * @return The global scope of the symbol table
      */
     SymbolTable symbolTable();
+
+    /**
+     * Returns whether analysis results for a file can be reused from the previous analysis, because
+     * neither the file nor any of the units it depends on have changed
+     *
+     * @param inputFile The input file
+     * @return true if the file can be skipped
+     */
+    default boolean canSkipUnchangedFile(InputFile inputFile) {
+      return false;
+    }
   }
 }
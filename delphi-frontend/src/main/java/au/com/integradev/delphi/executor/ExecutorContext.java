@@ -19,16 +19,27 @@
 package au.com.integradev.delphi.executor;
 
 import au.com.integradev.delphi.symbol.SymbolTable;
+import javax.annotation.Nullable;
+import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.sensor.SensorContext;
 
 public class ExecutorContext implements Executor.Context {
 
   private final SensorContext sensorContext;
   private final SymbolTable symbolTable;
+  private final UnitChangeIndex changeIndex;
 
   public ExecutorContext(SensorContext sensorContext, SymbolTable symbolTable) {
+    this(sensorContext, symbolTable, null);
+  }
+
+  public ExecutorContext(
+      SensorContext sensorContext,
+      SymbolTable symbolTable,
+      @Nullable UnitChangeIndex changeIndex) {
     this.sensorContext = sensorContext;
     this.symbolTable = symbolTable;
+    this.changeIndex = changeIndex;
   }
 
   @Override
@@ -40,4 +51,9 @@ public class ExecutorContext implements Executor.Context {
   public SymbolTable symbolTable() {
     return symbolTable;
   }
+
+  @Override
+  public boolean canSkipUnchangedFile(InputFile inputFile) {
+    return changeIndex != null && !changeIndex.isAffected(inputFile);
+  }
 }
@@ -0,0 +1,223 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2024 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.executor;
+
+import static au.com.integradev.delphi.utils.DelphiUtils.inputFileToPath;
+
+import au.com.integradev.delphi.core.Delphi;
+import au.com.integradev.delphi.symbol.SymbolTable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+import javax.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.sensor.cache.ReadCache;
+import org.sonar.api.batch.sensor.cache.WriteCache;
+import org.sonar.plugins.communitydelphi.api.symbol.declaration.UnitImportNameDeclaration;
+import org.sonar.plugins.communitydelphi.api.symbol.declaration.UnitNameDeclaration;
+
+/**
+ * Tracks which source files are affected by changes since the previous analysis.
+ *
+ * <p>A unit changed if its file or any file it includes changed. A unit's interface is affected if
+ * the unit changed, or if its interface depends on a unit whose interface is affected. A unit is
+ * re-resolved if it changed, or if it depends on a unit whose interface is affected.
+ *
+ * <p>A file is affected if its unit is re-resolved, or if a re-resolved unit depends on it. The
+ * latter is needed because checks like unused declaration checks look at the usages of a unit's
+ * declarations in other units.
+ *
+ * <p>Deleted source files can't be traced to the units that used them, so every file should be
+ * analyzed if {@link #hasDeletedSourceFiles} reports any.
+ */
+public final class UnitChangeIndex {
+  private static final Logger LOG = LoggerFactory.getLogger(UnitChangeIndex.class);
+  private static final String SOURCE_FILES_CACHE_KEY = "delphi:sourceFiles";
+
+  private final Set<String> affectedPaths;
+
+  private UnitChangeIndex(Set<String> affectedPaths) {
+    this.affectedPaths = affectedPaths;
+  }
+
+  /**
+   * Creates a change index from the files of an analysis
+   *
+   * @param inputFiles all files of the analysis, including files that aren't Delphi source files
+   * @param symbolTable the symbol table, which provides the unit dependencies and include files
+   * @return change index, or null if a changed Delphi source file can't be traced to a unit
+   */
+  @Nullable
+  public static UnitChangeIndex create(Iterable<InputFile> inputFiles, SymbolTable symbolTable) {
+    Map<UnitNameDeclaration, Set<UnitNameDeclaration>> interfaceDependents = new HashMap<>();
+    Map<UnitNameDeclaration, Set<UnitNameDeclaration>> allDependents = new HashMap<>();
+    Map<UnitNameDeclaration, String> pathsByUnit = new HashMap<>();
+    Set<UnitNameDeclaration> changedUnits = new HashSet<>();
+
+    for (InputFile inputFile : inputFiles) {
+      String path = inputFileToPath(inputFile).toAbsolutePath().toString();
+      UnitNameDeclaration unit = symbolTable.getUnitByPath(path);
+
+      if (inputFile.status() != InputFile.Status.SAME) {
+        Set<UnitNameDeclaration> includingUnits = symbolTable.getUnitsIncludingFile(path);
+        if (unit != null) {
+          changedUnits.add(unit);
+        } else if (!includingUnits.isEmpty()) {
+          changedUnits.addAll(includingUnits);
+        } else if (Delphi.KEY.equals(inputFile.language())) {
+          LOG.info("Changed file {} could not be traced to a unit", inputFile);
+          return null;
+        }
+      }
+
+      if (unit == null) {
+        continue;
+      }
+
+      pathsByUnit.put(unit, path);
+
+      for (UnitNameDeclaration dependency : unit.getInterfaceDependencies()) {
+        interfaceDependents.computeIfAbsent(dependency, k -> new HashSet<>()).add(unit);
+      }
+
+      for (UnitNameDeclaration dependency : getAllDependencies(unit)) {
+        allDependents.computeIfAbsent(dependency, k -> new HashSet<>()).add(unit);
+      }
+    }
+
+    Set<UnitNameDeclaration> resolvedUnits = new HashSet<>(changedUnits);
+    Deque<UnitNameDeclaration> changedInterfaces = new ArrayDeque<>(changedUnits);
+    Set<UnitNameDeclaration> visited = new HashSet<>(changedUnits);
+    while (!changedInterfaces.isEmpty()) {
+      UnitNameDeclaration unit = changedInterfaces.remove();
+
+      resolvedUnits.addAll(allDependents.getOrDefault(unit, Set.of()));
+
+      for (UnitNameDeclaration dependent : interfaceDependents.getOrDefault(unit, Set.of())) {
+        if (visited.add(dependent)) {
+          changedInterfaces.add(dependent);
+        }
+      }
+    }
+
+    Set<String> affectedPaths = new HashSet<>();
+    for (UnitNameDeclaration unit : resolvedUnits) {
+      addPath(affectedPaths, pathsByUnit, unit);
+      // The usages of the declarations in the unit's dependencies may have changed as well
+      for (UnitNameDeclaration dependency : getAllDependencies(unit)) {
+        addPath(affectedPaths, pathsByUnit, dependency);
+      }
+    }
+
+    return new UnitChangeIndex(affectedPaths);
+  }
+
+  /**
+   * Records the source files of an analysis, so that the next analysis can tell whether any of them
+   * were deleted
+   *
+   * @param nextCache the cache for the next analysis
+   * @param sourceFiles the source files of this analysis
+   */
+  public static void saveSourceFiles(WriteCache nextCache, Iterable<InputFile> sourceFiles) {
+    String keys = String.join("\n", getKeys(sourceFiles));
+    nextCache.write(SOURCE_FILES_CACHE_KEY, keys.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Returns whether any source files of the previous analysis are missing from this analysis
+   *
+   * @param previousCache the cache of the previous analysis
+   * @param sourceFiles the source files of this analysis
+   * @return true if a source file was deleted, or if the previous source files are unknown
+   */
+  public static boolean hasDeletedSourceFiles(
+      ReadCache previousCache, Iterable<InputFile> sourceFiles) {
+    if (!previousCache.contains(SOURCE_FILES_CACHE_KEY)) {
+      return true;
+    }
+
+    Set<String> keys = getKeys(sourceFiles);
+    try (InputStream input = previousCache.read(SOURCE_FILES_CACHE_KEY)) {
+      String previousKeys = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+      return previousKeys.lines().anyMatch(key -> !keys.contains(key));
+    } catch (IOException e) {
+      LOG.debug("Failed to read the source files of the previous analysis: ", e);
+      return true;
+    }
+  }
+
+  private static Set<String> getKeys(Iterable<InputFile> inputFiles) {
+    return StreamSupport.stream(inputFiles.spliterator(), false)
+        .map(InputFile::key)
+        .collect(Collectors.toCollection(TreeSet::new));
+  }
+
+  private static void addPath(
+      Set<String> paths, Map<UnitNameDeclaration, String> pathsByUnit, UnitNameDeclaration unit) {
+    String path = pathsByUnit.get(unit);
+    if (path != null) {
+      paths.add(path);
+    }
+  }
+
+  private static Set<UnitNameDeclaration> getAllDependencies(UnitNameDeclaration unit) {
+    Set<UnitNameDeclaration> result = new HashSet<>();
+    result.addAll(unit.getInterfaceDependencies());
+    result.addAll(unit.getImplementationDependencies());
+    // Imports are included even if no symbols are used from them, since a change to an imported
+    // unit can still change how names in this unit are resolved.
+    unit.getFileScope().getImportDeclarations().stream()
+        .map(UnitImportNameDeclaration::getOriginalDeclaration)
+        .filter(Objects::nonNull)
+        .forEach(result::add);
+    return result;
+  }
+
+  /**
+   * Returns whether a file is affected by changes since the previous analysis
+   *
+   * @param inputFile the input file
+   * @return true if the file needs to be analyzed again
+   */
+  public boolean isAffected(InputFile inputFile) {
+    return affectedPaths.contains(inputFileToPath(inputFile).toAbsolutePath().toString());
+  }
+
+  /**
+   * Returns the number of files affected by changes since the previous analysis
+   *
+   * @return number of affected files
+   */
+  public int getAffectedCount() {
+    return affectedPaths.size();
+  }
+}
@@ -0,0 +1,81 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2024 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.executor;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import org.sonar.plugins.communitydelphi.api.ast.DelphiAst;
+import org.sonar.plugins.communitydelphi.api.ast.DelphiNode;
+import org.sonar.plugins.communitydelphi.api.check.DelphiCheck;
+
+/**
+ * The node types that a check is interested in, based on the visit overloads it overrides.
+ *
+ * <p>A check that doesn't override the visit overload for a node (or for any of the node's
+ * supertypes) would just visit its children, so it doesn't need to be handed that node at all.
+ */
+final class VisitorSubscription {
+  private final Set<Class<?>> visitedTypes;
+  private final Map<Class<?>, Boolean> subscribedByNodeType = new HashMap<>();
+
+  private VisitorSubscription(Set<Class<?>> visitedTypes) {
+    this.visitedTypes = visitedTypes;
+  }
+
+  static VisitorSubscription of(Class<?> checkClass) {
+    Set<Class<?>> visitedTypes = new HashSet<>();
+
+    for (Class<?> type = checkClass;
+        type != null && type != DelphiCheck.class && type != Object.class;
+        type = type.getSuperclass()) {
+      for (Method method : type.getDeclaredMethods()) {
+        if (method.isBridge() || method.isSynthetic() || method.getParameterCount() != 2) {
+          continue;
+        }
+
+        Class<?> parameterType = method.getParameterTypes()[0];
+        if (method.getName().equals("visit") && DelphiNode.class.isAssignableFrom(parameterType)) {
+          visitedTypes.add(parameterType);
+        } else if (method.getName().equals("visitToken")) {
+          // Tokens are visited from the AST root.
+          visitedTypes.add(DelphiAst.class);
+        }
+      }
+    }
+
+    if (visitedTypes.isEmpty()) {
+      // Nothing we can see is overridden (the check might be a proxy, for example), so fall back to
+      // visiting the whole AST.
+      visitedTypes.add(DelphiAst.class);
+    }
+
+    return new VisitorSubscription(visitedTypes);
+  }
+
+  boolean isSubscribedTo(Class<?> nodeType) {
+    return subscribedByNodeType.computeIfAbsent(nodeType, this::isVisited);
+  }
+
+  private boolean isVisited(Class<?> nodeType) {
+    return visitedTypes.stream().anyMatch(type -> type.isAssignableFrom(nodeType));
+  }
+}
@@ -18,9 +18,11 @@
  */
 package au.com.integradev.delphi.file;
 
+import au.com.integradev.delphi.preprocessor.CompilerDirectiveIndex;
 import au.com.integradev.delphi.preprocessor.CompilerSwitchRegistry;
 import java.io.File;
 import java.util.List;
+import java.util.Set;
 import org.sonar.plugins.communitydelphi.api.ast.DelphiAst;
 import org.sonar.plugins.communitydelphi.api.token.DelphiToken;
 import org.sonar.plugins.communitydelphi.api.type.TypeFactory;
@@ -32,6 +34,8 @@ class DefaultDelphiFile implements DelphiFile {
   private List<DelphiToken> tokens;
   private List<DelphiToken> comments;
   private CompilerSwitchRegistry switchRegistry;
+  private CompilerDirectiveIndex directiveIndex;
+  private Set<String> includedFiles;
   private TypeFactory typeFactory;
 
   DefaultDelphiFile() {
@@ -68,6 +72,16 @@ class DefaultDelphiFile implements DelphiFile {
     return switchRegistry;
   }
 
+  @Override
+  public CompilerDirectiveIndex getCompilerDirectiveIndex() {
+    return directiveIndex;
+  }
+
+  @Override
+  public Set<String> getIncludedFiles() {
+    return includedFiles;
+  }
+
   @Override
   public TypeFactory getTypeFactory() {
     return typeFactory;
@@ -97,6 +111,14 @@ class DefaultDelphiFile implements DelphiFile {
     this.switchRegistry = switchRegistry;
   }
 
+  void setCompilerDirectiveIndex(CompilerDirectiveIndex directiveIndex) {
+    this.directiveIndex = directiveIndex;
+  }
+
+  void setIncludedFiles(Set<String> includedFiles) {
+    this.includedFiles = Set.copyOf(includedFiles);
+  }
+
   void setTypeFactory(TypeFactory typeFactory) {
     this.typeFactory = typeFactory;
   }
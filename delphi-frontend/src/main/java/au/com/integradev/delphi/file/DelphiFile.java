@@ -18,20 +18,16 @@
  */
 package au.com.integradev.delphi.file;
 
-import static java.nio.charset.StandardCharsets.UTF_8;
-import static java.util.function.Predicate.not;
-import static org.apache.commons.io.FileUtils.readLines;
-
 import au.com.integradev.delphi.antlr.DelphiFileStream;
 import au.com.integradev.delphi.antlr.DelphiLexer;
 import au.com.integradev.delphi.antlr.DelphiLexer.LexerException;
 import au.com.integradev.delphi.antlr.DelphiParser;
 import au.com.integradev.delphi.antlr.DelphiParser.ParserException;
-import au.com.integradev.delphi.antlr.DelphiTokenStream;
 import au.com.integradev.delphi.antlr.ast.DelphiAstImpl;
 import au.com.integradev.delphi.antlr.ast.DelphiTreeAdaptor;
-import au.com.integradev.delphi.antlr.ast.token.DelphiTokenImpl;
+import au.com.integradev.delphi.antlr.ast.token.DelphiTokenTable;
 import au.com.integradev.delphi.antlr.ast.token.IncludeToken;
+import au.com.integradev.delphi.preprocessor.CompilerDirectiveIndex;
 import au.com.integradev.delphi.preprocessor.CompilerSwitchRegistry;
 import au.com.integradev.delphi.preprocessor.DelphiPreprocessor;
 import au.com.integradev.delphi.preprocessor.DelphiPreprocessorFactory;
@@ -39,8 +35,10 @@ import au.com.integradev.delphi.preprocessor.search.SearchPath;
 import au.com.integradev.delphi.utils.DelphiUtils;
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.function.IntUnaryOperator;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import org.antlr.runtime.BufferedTokenStream;
@@ -66,6 +64,15 @@ public interface DelphiFile {
 
   CompilerSwitchRegistry getCompilerSwitchRegistry();
 
+  CompilerDirectiveIndex getCompilerDirectiveIndex();
+
+  /**
+   * Returns the include files of this file, including those included by other include files
+   *
+   * @return absolute paths of the included files
+   */
+  Set<String> getIncludedFiles();
+
   TypeFactory getTypeFactory();
 
   interface DelphiInputFile extends DelphiFile {
@@ -79,6 +86,29 @@ public interface DelphiFile {
       return delphiFile;
     }
 
+    /**
+     * Creates a DelphiInputFile from a DelphiFile that has already been constructed, without lexing
+     * or parsing the source file again.
+     *
+     * @param inputFile The input file
+     * @param delphiFile A file that was previously constructed from the same source file
+     * @return DelphiInputFile sharing the AST, tokens and compiler directives of the DelphiFile
+     */
+    static DelphiInputFile from(InputFile inputFile, DelphiFile delphiFile) {
+      DefaultDelphiInputFile delphiInputFile = new DefaultDelphiInputFile();
+      delphiInputFile.setSourceCodeFile(delphiFile.getSourceCodeFile());
+      delphiInputFile.setTypeFactory(delphiFile.getTypeFactory());
+      delphiInputFile.setAst(delphiFile.getAst());
+      delphiInputFile.setCompilerSwitchRegistry(delphiFile.getCompilerSwitchRegistry());
+      delphiInputFile.setCompilerDirectiveIndex(delphiFile.getCompilerDirectiveIndex());
+      delphiInputFile.setIncludedFiles(delphiFile.getIncludedFiles());
+      delphiInputFile.setSourceCodeLines(delphiFile.getSourceCodeFilesLines());
+      delphiInputFile.setTokens(delphiFile.getTokens());
+      delphiInputFile.setComments(delphiFile.getComments());
+      delphiInputFile.setInputFile(inputFile);
+      return delphiInputFile;
+    }
+
     private static DelphiFileConfig useInputFileEncoding(
         InputFile inputFile, DelphiFileConfig config) {
       if (inputFile.charset() != null && !inputFile.charset().name().equals(config.getEncoding())) {
@@ -148,8 +178,10 @@ public interface DelphiFile {
       delphiFile.setTypeFactory(config.getTypeFactory());
       delphiFile.setAst(createAST(delphiFile, preprocessor.getTokenStream(), config));
       delphiFile.setCompilerSwitchRegistry(preprocessor.getCompilerSwitchRegistry());
-      delphiFile.setSourceCodeLines(readLines(sourceFile, fileStream.getEncoding()));
-      delphiFile.setTokens(createTokenList(delphiFile, preprocessor.getTokenStream()));
+      delphiFile.setCompilerDirectiveIndex(preprocessor.getCompilerDirectiveIndex());
+      delphiFile.setIncludedFiles(preprocessor.getIncludedFiles());
+      delphiFile.setSourceCodeLines(fileStream.getLines());
+      delphiFile.setTokens(createTokenList(preprocessor));
       delphiFile.setComments(extractComments(delphiFile.getTokens()));
     } catch (IOException
         | RecognitionException
@@ -166,6 +198,8 @@ public interface DelphiFile {
     DelphiPreprocessorFactory preprocessorFactory = config.getPreprocessorFactory();
     DelphiPreprocessor preprocessor = preprocessorFactory.createPreprocessor(lexer, config);
     preprocessor.process();
+    // The preprocessor fills the token stream, so the file has been lexed completely by now.
+    fileStream.releaseLowercaseData();
     return preprocessor;
   }
 
@@ -197,44 +231,55 @@ public interface DelphiFile {
     return new DelphiAstImpl(delphiFile, root);
   }
 
-  private static List<DelphiToken> createTokenList(
-      DelphiFile delphiFile, DelphiTokenStream preprocessedTokenStream) throws IOException {
-    String filePath = delphiFile.getSourceCodeFile().getAbsolutePath();
-    DelphiLexer lexer = new DelphiLexer(new DelphiFileStream(filePath, UTF_8.name()));
-    DelphiTokenStream tokenStream = new DelphiTokenStream(lexer);
-    tokenStream.fill();
-
-    List<DelphiToken> tokenList =
-        tokenStream.getTokens().stream()
-            .map(CommonToken.class::cast)
-            .map(DelphiTokenImpl::new)
-            .filter(not(DelphiToken::isEof))
-            .collect(Collectors.toUnmodifiableList());
+  private static List<DelphiToken> createTokenList(DelphiPreprocessor preprocessor) {
+    List<Token> preprocessedTokens = preprocessor.getTokenStream().getTokens();
+    List<int[]> includeRegions = findIncludeRegions(preprocessedTokens);
+    return preprocessor.getRawTokens().mapIndices(new IncludeOffsets(includeRegions)).build();
+  }
 
+  private static List<int[]> findIncludeRegions(List<Token> preprocessedTokens) {
+    List<int[]> result = new ArrayList<>();
     int startIndex = 0;
     boolean include = false;
 
-    for (Token token : preprocessedTokenStream.getTokens()) {
+    for (Token token : preprocessedTokens) {
       if (token instanceof IncludeToken) {
         if (!include) {
           startIndex = token.getTokenIndex();
         }
         include = true;
       } else if (include) {
-        offsetTokenIndices(tokenList, startIndex, token.getTokenIndex() - startIndex);
+        result.add(new int[] {startIndex, token.getTokenIndex() - startIndex});
         include = false;
       }
     }
 
-    return tokenList;
+    return result;
   }
 
-  private static void offsetTokenIndices(List<DelphiToken> tokens, int startIndex, int offset) {
-    tokens.stream()
-        .map(DelphiTokenImpl.class::cast)
-        .map(DelphiTokenImpl::getAntlrToken)
-        .filter(token -> token.getTokenIndex() > startIndex)
-        .forEach(token -> token.setTokenIndex(token.getTokenIndex() + offset));
+  /**
+   * Offsets raw token indices past the tokens that were inserted by include directives.
+   *
+   * <p>Include regions are found in order, so the offsets can be applied in one pass over the raw
+   * tokens, which are also in order.
+   */
+  private static final class IncludeOffsets implements IntUnaryOperator {
+    private final List<int[]> includeRegions;
+    private int region;
+    private int offset;
+
+    private IncludeOffsets(List<int[]> includeRegions) {
+      this.includeRegions = includeRegions;
+    }
+
+    @Override
+    public int applyAsInt(int index) {
+      while (region < includeRegions.size() && index + offset > includeRegions.get(region)[0]) {
+        offset += includeRegions.get(region)[1];
+        ++region;
+      }
+      return index + offset;
+    }
   }
 
   private static List<DelphiToken> extractComments(List<DelphiToken> tokenList) {
@@ -0,0 +1,115 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2024 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.file;
+
+import au.com.integradev.delphi.file.DelphiFile.DelphiFileConstructionException;
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Parses a sequence of files ahead of time on a pool of worker threads.
+ *
+ * <p>Lexing, preprocessing and parsing a file doesn't depend on the symbol table or on analysis
+ * results, so it can happen in parallel while the parsed files are consumed on the calling thread.
+ * Only a bounded number of files are parsed ahead of the consumer, which keeps memory usage in
+ * check.
+ *
+ * @param <T> The type of the items that files are parsed from
+ * @param <F> The type of the parsed files
+ */
+public final class ParallelFileParser<T, F extends DelphiFile> implements AutoCloseable {
+  private static final int FILES_PER_THREAD = 2;
+
+  private final Iterator<T> items;
+  private final Function<T, F> parseFunction;
+  private final ExecutorService executor;
+  private final Deque<Future<F>> pending;
+
+  public ParallelFileParser(List<T> items, Function<T, F> parseFunction, int threads) {
+    this.items = items.iterator();
+    this.parseFunction = parseFunction;
+    this.pending = new ArrayDeque<>();
+
+    if (threads > 1) {
+      this.executor =
+          Executors.newFixedThreadPool(
+              threads,
+              new ThreadFactoryBuilder().setNameFormat("delphi-parser-%d").setDaemon(true).build());
+      for (int i = 0; i < threads * FILES_PER_THREAD; ++i) {
+        submitNext();
+      }
+    } else {
+      this.executor = null;
+    }
+  }
+
+  /**
+   * Returns a supplier for the next file in the sequence.
+   *
+   * <p>The supplier must be retrieved for every item, in order, even if the file won't be used.
+   *
+   * @return supplier that produces the parsed file, blocking until it's available
+   */
+  public Supplier<F> next() {
+    if (executor == null) {
+      T item = items.next();
+      return () -> parseFunction.apply(item);
+    }
+
+    Future<F> future = pending.remove();
+    submitNext();
+    return () -> getResult(future);
+  }
+
+  private void submitNext() {
+    if (items.hasNext()) {
+      T item = items.next();
+      pending.add(executor.submit(() -> parseFunction.apply(item)));
+    }
+  }
+
+  private static <F> F getResult(Future<F> future) {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new DelphiFileConstructionException(e);
+    } catch (ExecutionException e) {
+      Throwables.throwIfUnchecked(e.getCause());
+      throw new DelphiFileConstructionException(e);
+    }
+  }
+
+  @Override
+  public void close() {
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+  }
+}
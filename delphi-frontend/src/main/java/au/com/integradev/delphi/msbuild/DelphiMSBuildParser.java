@@ -44,8 +44,9 @@ public class DelphiMSBuildParser {
   private final Path environmentProj;
 
   private ProjectProperties properties;
+  private ConditionEvaluator conditionEvaluator;
   private List<Path> sourceFiles;
-  private List<DelphiProject> projects;
+  private List<Path> projectFiles;
 
   public DelphiMSBuildParser(
       Path path, EnvironmentVariableProvider environmentVariableProvider, Path environmentProj) {
@@ -55,9 +56,9 @@ public class DelphiMSBuildParser {
   }
 
   public Result parse() {
-    this.properties = createProperties();
+    setProperties(createProperties());
     this.sourceFiles = new ArrayList<>();
-    this.projects = new ArrayList<>();
+    this.projectFiles = new ArrayList<>();
 
     final SAXBuilder builder = new SAXBuilder();
     builder.setProperty(XMLConstants.ACCESS_EXTERNAL_DTD, "");
@@ -73,13 +74,18 @@ public class DelphiMSBuildParser {
       LOG.error("Error while parsing {}: ", path.toAbsolutePath(), e);
     }
 
-    return new Result(properties, sourceFiles, projects);
+    return new Result(properties, sourceFiles, projectFiles);
   }
 
   protected ProjectProperties createProperties() {
     return ProjectProperties.create(environmentVariableProvider, environmentProj);
   }
 
+  private void setProperties(ProjectProperties properties) {
+    this.properties = properties;
+    this.conditionEvaluator = new ConditionEvaluator(properties, evaluationDirectory());
+  }
+
   private void parseTopLevelElement(Element element) {
     parsePropertyGroup(element);
     parseItemGroup(element);
@@ -153,9 +159,7 @@ public class DelphiMSBuildParser {
       return;
     }
 
-    DelphiProjectParser parser =
-        new DelphiProjectParser(importPath, environmentVariableProvider, environmentProj);
-    projects.add(parser.parse());
+    projectFiles.add(importPath);
   }
 
   private void parseImport(Element element) {
@@ -172,13 +176,12 @@ public class DelphiMSBuildParser {
         new DelphiOptionSetParser(
             importPath, environmentVariableProvider, environmentProj, properties);
     Result result = parser.parse();
-    this.properties = result.getProperties();
+    setProperties(result.getProperties());
     this.sourceFiles.addAll(result.getSourceFiles());
   }
 
   private boolean isConditionMet(Element element) {
-    ConditionEvaluator evaluator = new ConditionEvaluator(properties, evaluationDirectory());
-    return evaluator.evaluate(element.getAttributeValue("Condition"));
+    return conditionEvaluator.evaluate(element.getAttributeValue("Condition"));
   }
 
   private Path resolvePathFromElementAttribute(Element element, String attribute) {
@@ -202,12 +205,12 @@ public class DelphiMSBuildParser {
   public static class Result {
     private final ProjectProperties properties;
     private final List<Path> sourceFiles;
-    private final List<DelphiProject> projects;
+    private final List<Path> projectFiles;
 
-    Result(ProjectProperties properties, List<Path> sourceFiles, List<DelphiProject> projects) {
+    Result(ProjectProperties properties, List<Path> sourceFiles, List<Path> projectFiles) {
       this.properties = properties;
       this.sourceFiles = sourceFiles;
-      this.projects = projects;
+      this.projectFiles = projectFiles;
     }
 
     public ProjectProperties getProperties() {
@@ -218,8 +221,8 @@ public class DelphiMSBuildParser {
       return sourceFiles;
     }
 
-    public List<DelphiProject> getProjects() {
-      return projects;
+    public List<Path> getProjectFiles() {
+      return projectFiles;
     }
   }
 }
@@ -19,26 +19,78 @@
 package au.com.integradev.delphi.msbuild;
 
 import au.com.integradev.delphi.enviroment.EnvironmentVariableProvider;
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
 
+/**
+ * Parses the projects referenced by a project group.
+ *
+ * <p>Projects are independent of each other, so they can be parsed in parallel. The results are
+ * returned in the order that the projects are referenced.
+ */
 final class DelphiProjectGroupParser {
   private final Path projectGroup;
   private final EnvironmentVariableProvider environmentVariableProvider;
   private final Path environmentProj;
+  private final int threads;
 
   DelphiProjectGroupParser(
       Path projectGroup,
       EnvironmentVariableProvider environmentVariableProvider,
-      Path environmentProj) {
+      Path environmentProj,
+      int threads) {
     this.projectGroup = projectGroup;
     this.environmentVariableProvider = environmentVariableProvider;
     this.environmentProj = environmentProj;
+    this.threads = threads;
   }
 
   public List<DelphiProject> parse() {
-    return new DelphiMSBuildParser(projectGroup, environmentVariableProvider, environmentProj)
-        .parse()
-        .getProjects();
+    List<Path> projectFiles =
+        new DelphiMSBuildParser(projectGroup, environmentVariableProvider, environmentProj)
+            .parse()
+            .getProjectFiles();
+
+    if (threads <= 1 || projectFiles.size() <= 1) {
+      return projectFiles.stream().map(this::parseProject).collect(Collectors.toList());
+    }
+
+    ExecutorService executor =
+        Executors.newFixedThreadPool(
+            Math.min(threads, projectFiles.size()),
+            new ThreadFactoryBuilder().setNameFormat("delphi-msbuild-%d").setDaemon(true).build());
+    try {
+      List<Future<DelphiProject>> pending = new ArrayList<>();
+      projectFiles.forEach(dproj -> pending.add(executor.submit(() -> parseProject(dproj))));
+      return pending.stream()
+          .map(DelphiProjectGroupParser::getResult)
+          .collect(Collectors.toList());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private DelphiProject parseProject(Path dproj) {
+    return new DelphiProjectParser(dproj, environmentVariableProvider, environmentProj).parse();
+  }
+
+  private static DelphiProject getResult(Future<DelphiProject> future) {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    } catch (ExecutionException e) {
+      Throwables.throwIfUnchecked(e.getCause());
+      throw new IllegalStateException(e);
+    }
   }
 }
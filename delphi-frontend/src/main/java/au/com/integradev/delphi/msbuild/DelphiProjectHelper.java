@@ -41,6 +41,8 @@ import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -73,6 +75,8 @@ public class DelphiProjectHelper {
   private final Set<String> conditionalDefines;
   private final Set<String> unitScopeNames;
   private final Map<String, String> unitAliases;
+  private final boolean retainParsedFiles;
+  private final int threads;
   private boolean indexedProjects;
 
   /**
@@ -97,6 +101,11 @@ public class DelphiProjectHelper {
     this.conditionalDefines = getPredefinedConditionalDefines();
     this.unitScopeNames = getSetFromSettings(DelphiProperties.UNIT_SCOPE_NAMES_KEY);
     this.unitAliases = getUnitAliasesFromSettings();
+    this.retainParsedFiles =
+        settings
+            .getBoolean(DelphiProperties.RETAIN_PARSED_FILES_KEY)
+            .orElse(DelphiProperties.RETAIN_PARSED_FILES_DEFAULT);
+    this.threads = getThreadsFromSettings();
   }
 
   private Set<String> getSetFromSettings(String key) {
@@ -150,6 +159,21 @@ public class DelphiProjectHelper {
     return result;
   }
 
+  private int getThreadsFromSettings() {
+    int result =
+        settings.getInt(DelphiProperties.THREADS_KEY).orElse(DelphiProperties.THREADS_DEFAULT);
+
+    if (result < 1) {
+      LOG.warn(
+          "Defaulting to {} thread(s) because the provided thread count was invalid: {}",
+          DelphiProperties.THREADS_DEFAULT,
+          result);
+      result = DelphiProperties.THREADS_DEFAULT;
+    }
+
+    return result;
+  }
+
   private Map<String, String> getUnitAliasesFromSettings() {
     String[] aliases = nullToEmpty(settings.getStringArray(DelphiProperties.UNIT_ALIASES_KEY));
     Map<String, String> result = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
@@ -246,7 +270,7 @@ public class DelphiProjectHelper {
   private void indexProjectGroup(Path projectGroup) {
     DelphiProjectGroupParser parser =
         new DelphiProjectGroupParser(
-            projectGroup, environmentVariableProvider, environmentProjPath());
+            projectGroup, environmentVariableProvider, environmentProjPath(), threads);
     projects.addAll(parser.parse());
   }
 
@@ -347,6 +371,24 @@ public class DelphiProjectHelper {
     return unitAliases;
   }
 
+  /**
+   * Whether source files parsed during symbol table construction should be retained for analysis
+   *
+   * @return true if parsed source files should be retained
+   */
+  public boolean shouldRetainParsedFiles() {
+    return retainParsedFiles;
+  }
+
+  /**
+   * Gets the number of threads to use for analysis
+   *
+   * @return number of threads
+   */
+  public int getThreads() {
+    return threads;
+  }
+
   public List<Path> getReferencedFiles() {
     indexProjects();
     return referencedFiles;
@@ -365,8 +407,24 @@ public class DelphiProjectHelper {
     return fs.inputFile(fs.predicates().hasURI(Paths.get(path).toUri()));
   }
 
-  public InputFile getFileFromBasename(String basename) {
-    return fs.inputFile(fs.predicates().hasFilename(basename));
+  /**
+   * Indexes the input files by their file names. File names that are shared by several input files
+   * are left out, since they can't be resolved unambiguously.
+   *
+   * @return map of file names to input files
+   */
+  public Map<String, InputFile> getFilesByBasename() {
+    Map<String, InputFile> result = new HashMap<>();
+    Set<String> ambiguous = new HashSet<>();
+    for (InputFile inputFile : fs.inputFiles(fs.predicates().all())) {
+      String filename = inputFile.filename();
+      if (!ambiguous.contains(filename) && result.putIfAbsent(filename, inputFile) != null) {
+        LOG.debug("Multiple input files are named '{}'", filename);
+        result.remove(filename);
+        ambiguous.add(filename);
+      }
+    }
+    return result;
   }
 
   public String encoding() {
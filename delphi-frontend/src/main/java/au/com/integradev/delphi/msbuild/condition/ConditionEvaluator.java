@@ -19,10 +19,23 @@
 package au.com.integradev.delphi.msbuild.condition;
 
 import au.com.integradev.delphi.msbuild.ProjectProperties;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import java.nio.file.Path;
 import java.util.List;
 
+/**
+ * Evaluates MSBuild conditions against a set of project properties.
+ *
+ * <p>Project files repeat the same handful of conditions many times, so parsed conditions are
+ * cached and shared by all evaluators. Expressions don't hold any evaluation state, which makes
+ * them safe to share between threads.
+ */
 public final class ConditionEvaluator {
+  private static final long MAXIMUM_CACHED_EXPRESSIONS = 10_000;
+  private static final Cache<String, Expression> EXPRESSIONS =
+      CacheBuilder.newBuilder().maximumSize(MAXIMUM_CACHED_EXPRESSIONS).build();
+
   private final ExpressionEvaluator expressionEvaluator;
 
   public ConditionEvaluator(ProjectProperties properties, Path evaluationDirectory) {
@@ -39,13 +52,7 @@ public final class ConditionEvaluator {
     }
 
     try {
-      ConditionLexer lexer = new ConditionLexer();
-      List<Token> tokens = lexer.lex(condition);
-
-      ConditionParser parser = new ConditionParser();
-      Expression expression = parser.parse(tokens);
-
-      return expression
+      return compile(condition)
           .boolEvaluate(expressionEvaluator)
           .orElseThrow(() -> new ConditionDoesNotEvaluateToBooleanException(condition));
     } catch (Exception e) {
@@ -53,6 +60,19 @@ public final class ConditionEvaluator {
     }
   }
 
+  private static Expression compile(String condition) {
+    Expression expression = EXPRESSIONS.getIfPresent(condition);
+    if (expression == null) {
+      ConditionLexer lexer = new ConditionLexer();
+      List<Token> tokens = lexer.lex(condition);
+
+      ConditionParser parser = new ConditionParser();
+      expression = parser.parse(tokens);
+      EXPRESSIONS.put(condition, expression);
+    }
+    return expression;
+  }
+
   private static class ConditionDoesNotEvaluateToBooleanException extends RuntimeException {
     ConditionDoesNotEvaluateToBooleanException(String condition) {
       super(String.format("Specified condition \"%s\" does not evaluate to boolean.", condition));
@@ -37,7 +37,6 @@ public class StringExpression implements Expression {
 
   private final String value;
   private final boolean expandable;
-  private String expandedValue;
 
   StringExpression(String value, boolean expandable) {
     this.value = value;
@@ -46,11 +45,13 @@ public class StringExpression implements Expression {
 
   @Override
   public Optional<Boolean> boolEvaluate(ExpressionEvaluator evaluator) {
-    if (TRUE_VALUES.contains(getExpandedValue(evaluator).orElseThrow())) {
+    String expandedValue = getExpandedValue(evaluator).orElseThrow();
+
+    if (TRUE_VALUES.contains(expandedValue)) {
       return Optional.of(true);
     }
 
-    if (FALSE_VALUES.contains(getExpandedValue(evaluator).orElseThrow())) {
+    if (FALSE_VALUES.contains(expandedValue)) {
       return Optional.of(false);
     }
 
@@ -77,9 +78,6 @@ public class StringExpression implements Expression {
     if (!expandable) {
       return getValue();
     }
-    if (expandedValue == null) {
-      expandedValue = evaluator.expand(value);
-    }
-    return Optional.of(expandedValue);
+    return Optional.of(evaluator.expand(value));
   }
 }
@@ -18,23 +18,37 @@
  */
 package au.com.integradev.delphi.nunit;
 
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import javax.xml.XMLConstants;
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.filefilter.FileFilterUtils;
 import org.apache.commons.io.filefilter.TrueFileFilter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.w3c.dom.Document;
-import org.xml.sax.SAXException;
 
-/** Parses NUnit test reports from XML files. */
+/**
+ * Parses NUnit test reports from XML files.
+ *
+ * <p>Reports are streamed, so memory usage doesn't depend on the size of the reports. Each report
+ * is aggregated separately and merged into the overall results in order, which means that a
+ * malformed report doesn't contribute any results.
+ */
 public final class DelphiNUnitParser {
   private static final Logger LOG = LoggerFactory.getLogger(DelphiNUnitParser.class);
 
@@ -43,8 +57,19 @@ public final class DelphiNUnitParser {
   }
 
   public static ResultsAggregator collect(File reportsDir) {
+    return collect(reportsDir, 1);
+  }
+
+  /**
+   * Parses the NUnit reports in a directory.
+   *
+   * @param reportsDir directory that is searched for reports, recursively
+   * @param threads the number of reports to parse in parallel
+   * @return the aggregated results of all reports
+   */
+  public static ResultsAggregator collect(File reportsDir, int threads) {
     LOG.info("Processing reports in {}", reportsDir);
-    return parseFiles(getReports(reportsDir));
+    return parseFiles(getReports(reportsDir), threads);
   }
 
   private static Collection<File> getReports(File path) {
@@ -63,9 +88,14 @@ public final class DelphiNUnitParser {
         dir, FileFilterUtils.suffixFileFilter(".xml"), TrueFileFilter.INSTANCE);
   }
 
-  private static NUnitFileParser getParserForFile(Document doc) {
-    String rootElementName = doc.getDocumentElement().getNodeName();
+  private static NUnitFileParser getParserForRootElement(XMLStreamReader reader)
+      throws XMLStreamException {
+    int event = reader.getEventType();
+    while (event != XMLStreamConstants.START_ELEMENT && reader.hasNext()) {
+      event = reader.next();
+    }
 
+    String rootElementName = reader.isStartElement() ? reader.getLocalName() : "";
     if (rootElementName.equals("test-run")) {
       return new NUnit3FileParser();
     } else if (rootElementName.equals("test-results")) {
@@ -75,32 +105,53 @@ public final class DelphiNUnitParser {
     }
   }
 
-  private static void parse(File reportFile, ResultsAggregator results) {
-    try {
+  private static ResultsAggregator parse(File reportFile) {
+    ResultsAggregator results = new ResultsAggregator();
+    try (InputStream input = new BufferedInputStream(Files.newInputStream(reportFile.toPath()))) {
       LOG.debug("Parsing NUnit report {}", reportFile);
-      DocumentBuilderFactory docBuilderFactory = DocumentBuilderFactory.newInstance();
-      docBuilderFactory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
-      docBuilderFactory.setAttribute(XMLConstants.ACCESS_EXTERNAL_DTD, "");
-      docBuilderFactory.setAttribute(XMLConstants.ACCESS_EXTERNAL_SCHEMA, "");
-      DocumentBuilder docBuilder = docBuilderFactory.newDocumentBuilder();
-      Document doc = docBuilder.parse(reportFile);
-
-      doc.getDocumentElement().normalize();
-
-      NUnitFileParser parser = getParserForFile(doc);
-      if (parser != null) {
-        parser.parse(doc, results);
-      } else {
-        LOG.error("Report '{}' is not a recognised NUnit format, skipping.", reportFile);
+      XMLStreamReader reader = createInputFactory().createXMLStreamReader(input);
+      try {
+        NUnitFileParser parser = getParserForRootElement(reader);
+        if (parser != null) {
+          parser.parse(reader, results);
+        } else {
+          LOG.error("Report '{}' is not a recognised NUnit format, skipping.", reportFile);
+        }
+      } finally {
+        reader.close();
       }
-    } catch (SAXException | ParserConfigurationException | IOException e) {
+    } catch (XMLStreamException | IOException e) {
       LOG.error("Error while parsing report '{}':", reportFile, e);
+      return new ResultsAggregator();
     }
+    return results;
+  }
+
+  private static XMLInputFactory createInputFactory() {
+    XMLInputFactory factory = XMLInputFactory.newInstance();
+    factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    return factory;
   }
 
-  private static ResultsAggregator parseFiles(Collection<File> reports) {
+  private static ResultsAggregator parseFiles(Collection<File> reports, int threads) {
     ResultsAggregator results = new ResultsAggregator();
-    reports.forEach(report -> parse(report, results));
+    if (threads <= 1 || reports.size() <= 1) {
+      reports.forEach(report -> results.merge(parse(report)));
+      return results;
+    }
+
+    ExecutorService executor =
+        Executors.newFixedThreadPool(
+            Math.min(threads, reports.size()),
+            new ThreadFactoryBuilder().setNameFormat("delphi-nunit-%d").setDaemon(true).build());
+    try {
+      List<Future<ResultsAggregator>> pending = new ArrayList<>();
+      reports.forEach(report -> pending.add(executor.submit(() -> parse(report))));
+      pending.forEach(future -> results.merge(Futures.getUnchecked(future)));
+    } finally {
+      executor.shutdownNow();
+    }
     return results;
   }
 }
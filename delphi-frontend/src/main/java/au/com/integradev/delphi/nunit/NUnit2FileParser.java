@@ -19,20 +19,18 @@
 package au.com.integradev.delphi.nunit;
 
 import au.com.integradev.delphi.nunit.TestResult.Status;
+import javax.xml.stream.XMLStreamReader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.w3c.dom.NamedNodeMap;
-import org.w3c.dom.Node;
 
 public class NUnit2FileParser extends NUnitFileParser {
   private static final Logger LOG = LoggerFactory.getLogger(NUnit2FileParser.class);
 
   @Override
-  protected TestResult parseTestResult(NamedNodeMap testCase) throws NUnitParseException {
-    String status = getNodeTextOrExcept(testCase, "result");
-    Node durationNode = testCase.getNamedItem("time");
-    double duration =
-        getTimeAttributeInSeconds(durationNode == null ? "" : durationNode.getTextContent());
+  protected TestResult parseTestResult(XMLStreamReader testCase) throws NUnitParseException {
+    String status = getAttributeOrExcept(testCase, "result");
+    String durationText = testCase.getAttributeValue(null, "time");
+    double duration = getTimeAttributeInSeconds(durationText == null ? "" : durationText);
 
     return new TestResult(parseTestCaseStatus(status), duration);
   }
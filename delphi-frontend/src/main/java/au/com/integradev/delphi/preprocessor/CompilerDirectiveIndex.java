@@ -0,0 +1,112 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2024 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.preprocessor;
+
+import com.google.common.collect.ImmutableList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import org.sonar.plugins.communitydelphi.api.directive.CompilerDirective;
+import org.sonar.plugins.communitydelphi.api.token.DelphiToken;
+
+/**
+ * The compiler directives of a file, parsed once by the preprocessor.
+ *
+ * <p>Directives from include files are not part of the index, and neither are directives that
+ * could not be parsed. Directives in inactive conditional branches are included.
+ */
+public final class CompilerDirectiveIndex {
+  private static final Comparator<DelphiToken> POSITION_ORDER =
+      Comparator.comparingInt(DelphiToken::getBeginLine)
+          .thenComparingInt(DelphiToken::getBeginColumn);
+
+  private final List<CompilerDirective> directives;
+
+  private CompilerDirectiveIndex(List<CompilerDirective> directives) {
+    this.directives = directives;
+  }
+
+  static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Returns all directives in the file
+   *
+   * @return directives, in the order they appear in the file
+   */
+  public List<CompilerDirective> getDirectives() {
+    return directives;
+  }
+
+  /**
+   * Returns the directives of a given kind
+   *
+   * @param kind the directive interface to filter by, such as {@code ResourceDirective}
+   * @param <T> the directive type
+   * @return directives of the given kind, in the order they appear in the file
+   */
+  public <T extends CompilerDirective> List<T> getDirectives(Class<T> kind) {
+    return directives.stream()
+        .filter(kind::isInstance)
+        .map(kind::cast)
+        .collect(Collectors.toUnmodifiableList());
+  }
+
+  /**
+   * Returns the directive parsed from a compiler directive token
+   *
+   * @param token a compiler directive token of the file
+   * @return directive at the position of the token, or empty if there is none
+   */
+  public Optional<CompilerDirective> getDirective(DelphiToken token) {
+    int low = 0;
+    int high = directives.size() - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      CompilerDirective directive = directives.get(mid);
+      int comparison = POSITION_ORDER.compare(directive.getToken(), token);
+      if (comparison < 0) {
+        low = mid + 1;
+      } else if (comparison > 0) {
+        high = mid - 1;
+      } else {
+        return Optional.of(directive);
+      }
+    }
+    return Optional.empty();
+  }
+
+  static final class Builder {
+    private final ImmutableList.Builder<CompilerDirective> directives = ImmutableList.builder();
+
+    private Builder() {
+      // Use CompilerDirectiveIndex.builder()
+    }
+
+    void add(CompilerDirective directive) {
+      directives.add(directive);
+    }
+
+    CompilerDirectiveIndex build() {
+      return new CompilerDirectiveIndex(directives.build());
+    }
+  }
+}
@@ -20,10 +20,10 @@ package au.com.integradev.delphi.preprocessor;
 
 import static java.util.Comparator.comparingInt;
 
-import au.com.integradev.delphi.antlr.DelphiFileStream;
 import au.com.integradev.delphi.antlr.DelphiLexer;
 import au.com.integradev.delphi.antlr.DelphiTokenStream;
 import au.com.integradev.delphi.antlr.ast.token.DelphiTokenImpl;
+import au.com.integradev.delphi.antlr.ast.token.DelphiTokenTable;
 import au.com.integradev.delphi.antlr.ast.token.IncludeToken;
 import au.com.integradev.delphi.compiler.Platform;
 import au.com.integradev.delphi.file.DelphiFileConfig;
@@ -41,12 +41,15 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.EnumMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.stream.Collectors;
+import org.antlr.runtime.CommonToken;
 import org.antlr.runtime.Token;
+import org.antlr.runtime.TokenSource;
 import org.apache.commons.io.FilenameUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -59,7 +62,7 @@ import org.sonar.plugins.communitydelphi.api.type.TypeFactory;
 
 public class DelphiPreprocessor {
   private static final Logger LOG = LoggerFactory.getLogger(DelphiPreprocessor.class);
-  private final DelphiLexer lexer;
+  private final TokenSource lexer;
   private final DelphiFileConfig config;
   private final Platform platform;
   private final Set<String> definitions;
@@ -68,12 +71,26 @@ public class DelphiPreprocessor {
   private final Map<SwitchKind, Integer> currentSwitches;
   private final CompilerSwitchRegistry switchRegistry;
   private final boolean processingIncludeFile;
+  private final IncludeTokenCache includeTokenCache;
+  private final CompilerDirectiveParser directiveParser;
+  private final CompilerDirectiveIndex.Builder directiveIndex;
+  private final Set<String> includedFiles;
 
   private DelphiTokenStream tokenStream;
   private Set<Token> tokens;
+  private DelphiTokenTable.Builder rawTokens;
+  private CompilerDirectiveIndex compilerDirectiveIndex;
   private int tokenIndex;
 
   DelphiPreprocessor(DelphiLexer lexer, DelphiFileConfig config, Platform platform) {
+    this(lexer, config, platform, new IncludeTokenCache());
+  }
+
+  DelphiPreprocessor(
+      DelphiLexer lexer,
+      DelphiFileConfig config,
+      Platform platform,
+      IncludeTokenCache includeTokenCache) {
     this(
         lexer,
         config,
@@ -82,18 +99,22 @@ public class DelphiPreprocessor {
         new EnumMap<>(SwitchKind.class),
         new CompilerSwitchRegistry(),
         0,
-        false);
+        false,
+        includeTokenCache,
+        new CompilerDirectiveParserImpl(platform));
   }
 
   private DelphiPreprocessor(
-      DelphiLexer lexer,
+      TokenSource lexer,
       DelphiFileConfig config,
       Platform platform,
       Set<String> definitions,
       Map<SwitchKind, Integer> currentSwitches,
       CompilerSwitchRegistry switchRegistry,
       int tokenIndexStart,
-      boolean processingIncludeFile) {
+      boolean processingIncludeFile,
+      IncludeTokenCache includeTokenCache,
+      CompilerDirectiveParser directiveParser) {
     this.lexer = lexer;
     this.config = config;
     this.platform = platform;
@@ -104,6 +125,10 @@ public class DelphiPreprocessor {
     this.currentSwitches = currentSwitches;
     this.processingIncludeFile = processingIncludeFile;
     this.tokenIndex = tokenIndexStart;
+    this.includeTokenCache = includeTokenCache;
+    this.directiveParser = directiveParser;
+    this.directiveIndex = CompilerDirectiveIndex.builder();
+    this.includedFiles = new LinkedHashSet<>();
   }
 
   private static Set<String> caseInsensitiveSet(Set<String> set) {
@@ -118,6 +143,9 @@ public class DelphiPreprocessor {
     tokenStream = new DelphiTokenStream(lexer);
 
     tokenStream.fill();
+    if (!processingIncludeFile) {
+      rawTokens = recordTokens(tokenStream);
+    }
     tokens = extractTokens(tokenStream);
     tokens.forEach(this::processToken);
     directives.stream()
@@ -128,7 +156,21 @@ public class DelphiPreprocessor {
 
     if (!processingIncludeFile) {
       registerCurrentCompilerSwitches();
+      compilerDirectiveIndex = directiveIndex.build();
+    }
+  }
+
+  private static DelphiTokenTable.Builder recordTokens(DelphiTokenStream tokenStream) {
+    // Preprocessing and parsing modify tokens in place, so the raw tokens are recorded up front.
+    List<?> lexedTokens = tokenStream.getTokens();
+    DelphiTokenTable.Builder result = DelphiTokenTable.builder(lexedTokens.size());
+    for (Object lexedToken : lexedTokens) {
+      CommonToken token = (CommonToken) lexedToken;
+      if (token.getType() != Token.EOF) {
+        result.add(token, token.getTokenIndex());
+      }
     }
+    return result;
   }
 
   private static Set<Token> extractTokens(DelphiTokenStream tokenStream) {
@@ -142,15 +184,18 @@ public class DelphiPreprocessor {
     tokenIndex++;
 
     if (token.getType() == DelphiLexer.TkCompilerDirective) {
-      CompilerDirectiveParser parser = new CompilerDirectiveParserImpl(platform);
       DelphiToken directiveToken = new DelphiTokenImpl(token);
-      parser.parse(directiveToken).ifPresent(this::processDirective);
+      directiveParser.parse(directiveToken).ifPresent(this::processDirective);
     } else if (!parentDirective.isEmpty()) {
       parentDirective.peek().addToken(token);
     }
   }
 
   private void processDirective(CompilerDirective directive) {
+    if (!processingIncludeFile) {
+      directiveIndex.add(directive);
+    }
+
     if (directive instanceof ConditionalDirective) {
       switch (((ConditionalDirective) directive).kind()) {
         case IF:
@@ -227,8 +272,7 @@ public class DelphiPreprocessor {
               "Include file <" + includeFile.toAbsolutePath() + "> references itself");
         }
 
-        DelphiFileStream fileStream = new DelphiFileStream(path, config.getEncoding());
-        DelphiLexer includeLexer = new DelphiLexer(fileStream);
+        TokenSource includeLexer = includeTokenCache.getTokenSource(path, config.getEncoding());
         DelphiPreprocessor preprocessor =
             new DelphiPreprocessor(
                 includeLexer,
@@ -238,9 +282,13 @@ public class DelphiPreprocessor {
                 currentSwitches,
                 switchRegistry,
                 location.getIndex(),
-                true);
+                true,
+                includeTokenCache,
+                directiveParser);
 
         preprocessor.process();
+        includedFiles.add(path);
+        includedFiles.addAll(preprocessor.includedFiles);
 
         List<Token> includeTokens = preprocessor.getTokenStream().getTokens();
         return includeTokens.stream()
@@ -311,6 +359,33 @@ public class DelphiPreprocessor {
     return tokenStream;
   }
 
+  /**
+   * Returns the tokens of the file as they were lexed, before any preprocessing took place
+   *
+   * @return table builder holding the raw tokens of the file, indexed in the order they were lexed
+   */
+  public DelphiTokenTable.Builder getRawTokens() {
+    return rawTokens;
+  }
+
+  /**
+   * Returns the compiler directives of the file, which were parsed during preprocessing
+   *
+   * @return compiler directive index of the file
+   */
+  public CompilerDirectiveIndex getCompilerDirectiveIndex() {
+    return compilerDirectiveIndex;
+  }
+
+  /**
+   * Returns the include files that were processed, including those included by other include files
+   *
+   * @return absolute paths of the included files
+   */
+  public Set<String> getIncludedFiles() {
+    return Collections.unmodifiableSet(includedFiles);
+  }
+
   public CompilerSwitchRegistry getCompilerSwitchRegistry() {
     return switchRegistry;
   }
@@ -0,0 +1,144 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2024 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.preprocessor;
+
+import au.com.integradev.delphi.antlr.DelphiFileStream;
+import au.com.integradev.delphi.antlr.DelphiLexer;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import org.antlr.runtime.CommonToken;
+import org.antlr.runtime.Token;
+import org.antlr.runtime.TokenSource;
+
+/**
+ * Caches the lexed tokens of include files, so that an include file is only read and lexed once
+ * no matter how many times it's included.
+ *
+ * <p>Only lexing is cached. The tokens are replayed through the preprocessor on every include,
+ * since the result of preprocessing depends on the definitions and switches at the include site.
+ */
+final class IncludeTokenCache {
+  private final Map<Key, List<Token>> tokensByFile = new ConcurrentHashMap<>();
+
+  /**
+   * Returns a token source that replays the lexed tokens of an include file
+   *
+   * @param path The absolute path of the include file
+   * @param encoding The encoding to read the file with
+   * @return token source producing fresh copies of the cached tokens
+   * @throws IOException if the file could not be read
+   */
+  TokenSource getTokenSource(String path, String encoding) throws IOException {
+    Key key = new Key(path, Files.getLastModifiedTime(Path.of(path)).toMillis(), encoding);
+    List<Token> tokens = tokensByFile.get(key);
+
+    if (tokens == null) {
+      tokens = lex(path, encoding);
+      tokensByFile.putIfAbsent(key, tokens);
+    }
+
+    return new ReplayTokenSource(path, tokens);
+  }
+
+  private static List<Token> lex(String path, String encoding) throws IOException {
+    DelphiFileStream fileStream = new DelphiFileStream(path, encoding);
+    DelphiLexer lexer = new DelphiLexer(fileStream);
+    List<Token> result = new ArrayList<>();
+    Token token;
+
+    do {
+      token = lexer.nextToken();
+      result.add(token);
+    } while (token.getType() != Token.EOF);
+
+    // The cached tokens keep the file stream alive, but it won't be lexed again.
+    fileStream.releaseLowercaseData();
+    return List.copyOf(result);
+  }
+
+  private static final class ReplayTokenSource implements TokenSource {
+    private final String sourceName;
+    private final List<Token> tokens;
+    private int index;
+
+    private ReplayTokenSource(String sourceName, List<Token> tokens) {
+      this.sourceName = sourceName;
+      this.tokens = tokens;
+    }
+
+    @Override
+    public Token nextToken() {
+      CommonToken token = (CommonToken) tokens.get(Math.min(index++, tokens.size() - 1));
+      // The preprocessor modifies tokens in place, so the cached tokens must not be handed out.
+      // The copy references the cached character stream, so the token text isn't materialized.
+      CommonToken copy =
+          new CommonToken(
+              token.getInputStream(),
+              token.getType(),
+              token.getChannel(),
+              token.getStartIndex(),
+              token.getStopIndex());
+      copy.setLine(token.getLine());
+      copy.setCharPositionInLine(token.getCharPositionInLine());
+      return copy;
+    }
+
+    @Override
+    public String getSourceName() {
+      return sourceName;
+    }
+  }
+
+  private static final class Key {
+    private final String path;
+    private final long lastModified;
+    private final String encoding;
+
+    private Key(String path, long lastModified, String encoding) {
+      this.path = path;
+      this.lastModified = lastModified;
+      this.encoding = encoding;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Key other = (Key) o;
+      return lastModified == other.lastModified
+          && path.equals(other.path)
+          && Objects.equals(encoding, other.encoding);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(path, lastModified, encoding);
+    }
+  }
+}
@@ -27,6 +27,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import org.slf4j.Logger;
@@ -63,6 +64,7 @@ public final class DelphiIssueBuilder {
   private final SensorContext context;
   private final DelphiInputFile delphiFile;
   private final MasterCheckRegistrar checkRegistrar;
+  private final Supplier<TestCodeIndex> testCodeIndex;
   private FilePosition position;
   private String message;
   @Nullable private List<DelphiCheckContext.Location> secondaries;
@@ -74,11 +76,13 @@ public final class DelphiIssueBuilder {
       DelphiCheck check,
       SensorContext context,
       DelphiInputFile delphiFile,
-      MasterCheckRegistrar checkRegistrar) {
+      MasterCheckRegistrar checkRegistrar,
+      Supplier<TestCodeIndex> testCodeIndex) {
     this.check = check;
     this.context = context;
     this.delphiFile = delphiFile;
     this.checkRegistrar = checkRegistrar;
+    this.testCodeIndex = testCodeIndex;
   }
 
   private static void requiresValueToBeSet(Object target, String targetName) {
@@ -213,10 +217,7 @@ public final class DelphiIssueBuilder {
       return true;
     }
 
-    boolean inTestCode =
-        new TestCodeDetector(context.config()).isInTestCode(delphiFile.getAst(), position);
-
-    return (scope == RuleScope.TEST) == inTestCode;
+    return (scope == RuleScope.TEST) == testCodeIndex.get().isInTestCode(position);
   }
 
   private static TextRange createTextRange(InputFile inputFile, FilePosition position) {
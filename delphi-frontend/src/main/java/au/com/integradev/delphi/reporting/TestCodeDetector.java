@@ -45,12 +45,25 @@ public class TestCodeDetector {
   }
 
   public boolean isInTestCode(DelphiAst ast, FilePosition position) {
-    Type type = findEnclosingType(ast, position);
-    return isTestType(type) || isNestedInsideTestType(type);
+    return isTestCode(findEnclosingType(ast, position));
   }
 
   public boolean isInTestCode(DelphiNode node) {
-    Type type = findEnclosingType(node.getAst(), FilePosition.from(node));
+    return isTestCode(findEnclosingType(node.getAst(), FilePosition.from(node)));
+  }
+
+  /**
+   * Creates an index of the test code regions in a file, for when many positions in the same file
+   * will be queried.
+   *
+   * @param ast the file to index
+   * @return test code index of the file
+   */
+  public TestCodeIndex createIndex(DelphiAst ast) {
+    return new TestCodeIndex(ast, this::isTestCode);
+  }
+
+  private boolean isTestCode(Type type) {
     return isTestType(type) || isNestedInsideTestType(type);
   }
 
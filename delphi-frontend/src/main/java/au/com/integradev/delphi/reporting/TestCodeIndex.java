@@ -0,0 +1,176 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2024 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.reporting;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Predicate;
+import javax.annotation.Nullable;
+import org.sonar.plugins.communitydelphi.api.ast.DelphiAst;
+import org.sonar.plugins.communitydelphi.api.ast.DelphiNode;
+import org.sonar.plugins.communitydelphi.api.ast.RoutineImplementationNode;
+import org.sonar.plugins.communitydelphi.api.ast.TypeDeclarationNode;
+import org.sonar.plugins.communitydelphi.api.check.FilePosition;
+import org.sonar.plugins.communitydelphi.api.symbol.declaration.TypeNameDeclaration;
+import org.sonar.plugins.communitydelphi.api.type.Type;
+import org.sonar.plugins.communitydelphi.api.type.TypeFactory;
+
+/**
+ * The test code regions of a file, for answering repeated {@link TestCodeDetector} queries without
+ * walking the AST each time.
+ *
+ * <p>Each type declaration and routine implementation in the file is a region, and whether it is
+ * test code is determined once when the index is built. A position is in test code if its
+ * innermost enclosing type declaration is, or failing that, its innermost enclosing routine
+ * implementation.
+ */
+public final class TestCodeIndex {
+  private final Regions typeDeclarations;
+  private final Regions routineImplementations;
+  private final boolean unknownTypeIsTestCode;
+
+  TestCodeIndex(DelphiAst ast, Predicate<Type> isTestCode) {
+    this.typeDeclarations =
+        new Regions(
+            ast.findDescendantsOfType(TypeDeclarationNode.class),
+            node -> isTestCode.test(node.getType()));
+    this.routineImplementations =
+        new Regions(
+            ast.findDescendantsOfType(RoutineImplementationNode.class),
+            node -> isTestCode.test(getTypeOfRoutine(node)));
+    this.unknownTypeIsTestCode = isTestCode.test(TypeFactory.unknownType());
+  }
+
+  private static Type getTypeOfRoutine(RoutineImplementationNode routine) {
+    TypeNameDeclaration typeDeclaration = routine.getTypeDeclaration();
+    return typeDeclaration == null ? TypeFactory.unknownType() : typeDeclaration.getType();
+  }
+
+  public boolean isInTestCode(@Nullable FilePosition position) {
+    if (position == null) {
+      return unknownTypeIsTestCode;
+    }
+
+    int typeDeclaration = typeDeclarations.findInnermost(position);
+    if (typeDeclaration != -1) {
+      return typeDeclarations.isTestCode(typeDeclaration);
+    }
+
+    int routine = routineImplementations.findInnermost(position);
+    if (routine != -1) {
+      return routineImplementations.isTestCode(routine);
+    }
+
+    return unknownTypeIsTestCode;
+  }
+
+  private static final class Regions {
+    private final List<DelphiNode> nodes;
+    private final int[] parents;
+    private final boolean[] testCode;
+
+    private <T extends DelphiNode> Regions(List<T> regionNodes, Predicate<T> isTestCode) {
+      List<T> sorted = new ArrayList<>(regionNodes);
+      sorted.sort(
+          Comparator.<T>comparingInt(DelphiNode::getBeginLine)
+              .thenComparingInt(DelphiNode::getBeginColumn));
+
+      this.nodes = List.copyOf(sorted);
+      this.parents = new int[sorted.size()];
+      this.testCode = new boolean[sorted.size()];
+
+      // Regions are sorted by their start, so any regions enclosing a region are on the stack.
+      Deque<Integer> enclosing = new ArrayDeque<>();
+      for (int i = 0; i < sorted.size(); ++i) {
+        T node = sorted.get(i);
+        while (!enclosing.isEmpty() && !encloses(nodes.get(enclosing.peek()), node)) {
+          enclosing.pop();
+        }
+        parents[i] = enclosing.isEmpty() ? -1 : enclosing.peek();
+        testCode[i] = isTestCode.test(node);
+        enclosing.push(i);
+      }
+    }
+
+    boolean isTestCode(int region) {
+      return testCode[region];
+    }
+
+    int findInnermost(FilePosition position) {
+      int region = findLastStartingAtOrBefore(position);
+      while (region != -1 && !endsAtOrAfter(nodes.get(region), position)) {
+        region = parents[region];
+      }
+      return region;
+    }
+
+    private int findLastStartingAtOrBefore(FilePosition position) {
+      int low = 0;
+      int high = nodes.size() - 1;
+      int result = -1;
+      while (low <= high) {
+        int mid = (low + high) >>> 1;
+        DelphiNode node = nodes.get(mid);
+        int begin =
+            compare(
+                node.getBeginLine(),
+                node.getBeginColumn(),
+                position.getBeginLine(),
+                position.getBeginColumn());
+        if (begin <= 0) {
+          result = mid;
+          low = mid + 1;
+        } else {
+          high = mid - 1;
+        }
+      }
+      return result;
+    }
+
+    private static boolean encloses(DelphiNode node, DelphiNode other) {
+      int begin =
+          compare(
+              node.getBeginLine(),
+              node.getBeginColumn(),
+              other.getBeginLine(),
+              other.getBeginColumn());
+      int end =
+          compare(node.getEndLine(), node.getEndColumn(), other.getEndLine(), other.getEndColumn());
+      return begin <= 0 && end >= 0;
+    }
+
+    private static boolean endsAtOrAfter(DelphiNode node, FilePosition position) {
+      int end =
+          compare(
+              node.getEndLine(),
+              node.getEndColumn(),
+              position.getEndLine(),
+              position.getEndColumn());
+      return end >= 0;
+    }
+
+    private static int compare(int line, int column, int otherLine, int otherColumn) {
+      int result = Integer.compare(line, otherLine);
+      return result == 0 ? Integer.compare(column, otherColumn) : result;
+    }
+  }
+}
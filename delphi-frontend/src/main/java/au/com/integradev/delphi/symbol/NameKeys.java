@@ -0,0 +1,76 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2024 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.symbol;
+
+import au.com.integradev.delphi.symbol.occurrence.NameOccurrenceImpl;
+import org.sonar.plugins.communitydelphi.api.symbol.NameOccurrence;
+
+/**
+ * Case-folded lookup keys for names.
+ *
+ * <p>Two names have the same key exactly when {@link String#CASE_INSENSITIVE_ORDER} considers them
+ * equal, so keys can be used with hash-based collections in place of case-insensitive sorted ones.
+ */
+public final class NameKeys {
+  private NameKeys() {
+    // Utility class
+  }
+
+  /**
+   * Returns the lookup key for a name.
+   *
+   * @param name the name
+   * @return case-folded key
+   */
+  public static String fold(String name) {
+    int length = name.length();
+    int i = 0;
+    while (i < length && isFolded(name.charAt(i))) {
+      ++i;
+    }
+
+    if (i == length) {
+      return name;
+    }
+
+    char[] chars = name.toCharArray();
+    for (; i < length; ++i) {
+      chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+    }
+    return new String(chars);
+  }
+
+  /**
+   * Returns the lookup key for a name occurrence, reusing the key stored on the occurrence where
+   * possible.
+   *
+   * @param occurrence the name occurrence
+   * @return case-folded key
+   */
+  public static String of(NameOccurrence occurrence) {
+    if (occurrence instanceof NameOccurrenceImpl) {
+      return ((NameOccurrenceImpl) occurrence).getNameKey();
+    }
+    return fold(occurrence.getImage());
+  }
+
+  private static boolean isFolded(char c) {
+    return c < 0x80 && (c < 'A' || c > 'Z');
+  }
+}
@@ -18,12 +18,20 @@
  */
 package au.com.integradev.delphi.symbol;
 
+import au.com.integradev.delphi.file.DelphiFile;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nullable;
 import org.sonar.plugins.communitydelphi.api.symbol.declaration.UnitNameDeclaration;
 
 public class SymbolTable {
   private final Map<String, UnitNameDeclaration> unitsByFilePath = new HashMap<>();
+  private final Map<String, Set<UnitNameDeclaration>> unitsByIncludedFilePath = new HashMap<>();
+  private final Map<String, DelphiFile> retainedFilesByPath = new ConcurrentHashMap<>();
 
   public void addUnit(String path, UnitNameDeclaration declaration) {
     unitsByFilePath.put(path, declaration);
@@ -33,6 +41,42 @@ public class SymbolTable {
     return unitsByFilePath.get(path);
   }
 
+  public void addIncludedFiles(UnitNameDeclaration declaration, Set<String> includedFilePaths) {
+    for (String path : includedFilePaths) {
+      unitsByIncludedFilePath.computeIfAbsent(path, k -> new HashSet<>()).add(declaration);
+    }
+  }
+
+  /**
+   * Returns the source file units that include a file, either directly or through other include
+   * files.
+   *
+   * @param path The absolute path of the include file
+   * @return units that include the file
+   */
+  public Set<UnitNameDeclaration> getUnitsIncludingFile(String path) {
+    return unitsByIncludedFilePath.getOrDefault(path, Collections.emptySet());
+  }
+
+  void addRetainedFile(String path, DelphiFile delphiFile) {
+    retainedFilesByPath.put(path, delphiFile);
+  }
+
+  /**
+   * Removes and returns a source file that was parsed (and retained) during symbol table
+   * construction.
+   *
+   * <p>Retained files are handed out exactly once, so that they can be garbage collected as soon as
+   * analysis of the file is complete.
+   *
+   * @param path The absolute path of the source file
+   * @return the retained file, or null if the file was not retained
+   */
+  @Nullable
+  public DelphiFile takeRetainedFile(String path) {
+    return retainedFilesByPath.remove(path);
+  }
+
   public static SymbolTableBuilder builder() {
     return new SymbolTableBuilder();
   }
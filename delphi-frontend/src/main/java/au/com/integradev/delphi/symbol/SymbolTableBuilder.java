@@ -26,10 +26,14 @@ import au.com.integradev.delphi.antlr.ast.visitors.SymbolTableVisitor;
 import au.com.integradev.delphi.file.DelphiFile;
 import au.com.integradev.delphi.file.DelphiFile.DelphiFileConstructionException;
 import au.com.integradev.delphi.file.DelphiFileConfig;
+import au.com.integradev.delphi.file.ParallelFileParser;
 import au.com.integradev.delphi.preprocessor.DelphiPreprocessorFactory;
 import au.com.integradev.delphi.preprocessor.search.SearchPath;
 import au.com.integradev.delphi.symbol.declaration.UnitImportNameDeclarationImpl;
+import au.com.integradev.delphi.symbol.resolve.ArgumentMatchCache;
 import au.com.integradev.delphi.symbol.scope.FileScopeImpl;
+import au.com.integradev.delphi.type.factory.TypeFactoryImpl;
+import au.com.integradev.delphi.type.generic.SpecializationCache;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -43,6 +47,7 @@ import java.util.Set;
 import java.util.TreeMap;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.annotation.Nullable;
@@ -82,6 +87,8 @@ public class SymbolTableBuilder {
   private Set<String> conditionalDefines = Collections.emptySet();
   private Set<String> unitScopeNames = Collections.emptySet();
   private Map<String, String> unitAliases = Collections.emptyMap();
+  private boolean retainParsedFiles;
+  private int threads = 1;
 
   private SystemScope systemScope;
   private SysInitScope sysInitScope;
@@ -137,6 +144,16 @@ public class SymbolTableBuilder {
     return this;
   }
 
+  public SymbolTableBuilder retainParsedFiles(boolean retainParsedFiles) {
+    this.retainParsedFiles = retainParsedFiles;
+    return this;
+  }
+
+  public SymbolTableBuilder threads(int threads) {
+    this.threads = threads;
+    return this;
+  }
+
   public SymbolTableBuilder standardLibraryPath(Path standardLibraryPath) {
     this.standardLibraryPath = standardLibraryPath;
     return this;
@@ -265,7 +282,27 @@ public class SymbolTableBuilder {
         shouldSkipImplementation);
   }
 
+  private DelphiFile parse(UnitData unit, ResolutionLevel resolutionLevel) {
+    boolean shouldSkipImplementation = (resolutionLevel != ResolutionLevel.COMPLETE);
+    DelphiFileConfig fileConfig = createFileConfig(unit, shouldSkipImplementation);
+    return DelphiFile.from(unit.unitFile.toFile(), fileConfig);
+  }
+
+  @Nullable
+  private DelphiFile parseAhead(UnitData unit) {
+    // Units with inline routines may already have been completed as imports of earlier units
+    if (unit.resolved == ResolutionLevel.COMPLETE) {
+      return null;
+    }
+    return parse(unit, ResolutionLevel.COMPLETE);
+  }
+
   private void process(UnitData unit, ResolutionLevel resolutionLevel) {
+    process(unit, resolutionLevel, () -> parse(unit, resolutionLevel));
+  }
+
+  private void process(
+      UnitData unit, ResolutionLevel resolutionLevel, Supplier<DelphiFile> delphiFileSupplier) {
     if (unit.resolved.ordinal() >= resolutionLevel.ordinal()) {
       return;
     }
@@ -279,9 +316,7 @@ public class SymbolTableBuilder {
         LOG.debug("{}> {}", indentation, fileName);
       }
 
-      boolean shouldSkipImplementation = (resolutionLevel != ResolutionLevel.COMPLETE);
-      DelphiFileConfig fileConfig = createFileConfig(unit, shouldSkipImplementation);
-      DelphiFile delphiFile = DelphiFile.from(unit.unitFile.toFile(), fileConfig);
+      DelphiFile delphiFile = delphiFileSupplier.get();
 
       if (unit.resolved == ResolutionLevel.NONE) {
         runSymbolTableVisitor(unit, delphiFile, ResolutionLevel.INTERFACE);
@@ -292,6 +327,10 @@ public class SymbolTableBuilder {
         runSymbolTableVisitor(unit, delphiFile, ResolutionLevel.COMPLETE);
         processImportsWithInlineRoutines(unit);
         runDependencyAnalysisVisitor(unit, delphiFile, ResolutionLevel.COMPLETE);
+
+        if (retainParsedFiles && unit.isSourceFile) {
+          symbolTable.addRetainedFile(unit.unitFile.toAbsolutePath().toString(), delphiFile);
+        }
       }
     } catch (DelphiFileConstructionException e) {
       String error = String.format("Error while processing %s", unit.unitFile.toAbsolutePath());
@@ -318,7 +357,9 @@ public class SymbolTableBuilder {
       String filePath = unit.unitFile.toAbsolutePath().toString();
       unit.unitDeclaration = data.getUnitDeclaration();
       symbolTable.addUnit(filePath, unit.unitDeclaration);
-      if (!unit.isSourceFile) {
+      if (unit.isSourceFile) {
+        symbolTable.addIncludedFiles(unit.unitDeclaration, delphiFile.getIncludedFiles());
+      } else {
         FileScopeImpl fileScope = (FileScopeImpl) data.getUnitDeclaration().getFileScope();
         fileScope.unregisterScopes();
         fileScope.unregisterDeclarations();
@@ -392,8 +433,13 @@ public class SymbolTableBuilder {
   }
 
   private void indexUnit(UnitData unit, ResolutionLevel resolutionLevel) {
+    indexUnit(unit, resolutionLevel, () -> parse(unit, resolutionLevel));
+  }
+
+  private void indexUnit(
+      UnitData unit, ResolutionLevel resolutionLevel, Supplier<DelphiFile> delphiFileSupplier) {
     LOG.debug("Indexing file: {}", unit.unitFile.toAbsolutePath());
-    process(unit, resolutionLevel);
+    process(unit, resolutionLevel, delphiFileSupplier);
   }
 
   private UnitData getRequiredUnit(String unit) {
@@ -471,10 +517,12 @@ public class SymbolTableBuilder {
     progressReport.start(getSourceFileNames());
 
     boolean success = false;
+    List<UnitData> units = List.copyOf(sourceFileUnits);
 
-    try {
-      for (UnitData unit : sourceFileUnits) {
-        indexUnit(unit, ResolutionLevel.COMPLETE);
+    try (ParallelFileParser<UnitData, DelphiFile> parser =
+        new ParallelFileParser<>(units, this::parseAhead, threads)) {
+      for (UnitData unit : units) {
+        indexUnit(unit, ResolutionLevel.COMPLETE, parser.next());
         progressReport.nextFile();
       }
       success = true;
@@ -482,9 +530,31 @@ public class SymbolTableBuilder {
       stopProgressReport(progressReport, success);
     }
 
+    logCacheStatistics();
+
+    if (typeFactory instanceof TypeFactoryImpl) {
+      // Most invocations have been resolved by now, so the matches aren't worth holding on to
+      ((TypeFactoryImpl) typeFactory).getArgumentMatchCache().invalidateAll();
+    }
+
     return symbolTable;
   }
 
+  private void logCacheStatistics() {
+    if (LOG.isDebugEnabled() && typeFactory instanceof TypeFactoryImpl) {
+      TypeFactoryImpl typeFactoryImpl = (TypeFactoryImpl) typeFactory;
+      SpecializationCache cache = typeFactoryImpl.getSpecializationCache();
+      LOG.debug(
+          "Specialized types: {} ({} cache hits, {} cache misses)",
+          cache.size(),
+          cache.getHits(),
+          cache.getMisses());
+
+      ArgumentMatchCache argumentMatches = typeFactoryImpl.getArgumentMatchCache();
+      LOG.debug("Argument match cache: {}", argumentMatches.getStats());
+    }
+  }
+
   private Iterable<String> getSourceFileNames() {
     return sourceFileUnits.stream()
         .map(data -> data.unitFile)
@@ -501,7 +571,7 @@ public class SymbolTableBuilder {
   private static final class UnitData {
     private final Path unitFile;
     private final boolean isSourceFile;
-    private ResolutionLevel resolved;
+    private volatile ResolutionLevel resolved;
     private UnitNameDeclaration unitDeclaration;
 
     private UnitData(Path unitFile, boolean isSourceFile) {
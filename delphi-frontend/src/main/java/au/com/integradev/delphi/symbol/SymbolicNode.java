@@ -19,6 +19,8 @@
 package au.com.integradev.delphi.symbol;
 
 import au.com.integradev.delphi.symbol.declaration.UnitNameDeclarationImpl;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.sonar.plugins.communitydelphi.api.ast.DelphiNode;
 import org.sonar.plugins.communitydelphi.api.ast.Node;
@@ -28,6 +30,8 @@ import org.sonar.plugins.communitydelphi.api.token.DelphiTokenType;
 
 public final class SymbolicNode implements Node {
   private static final AtomicInteger IMAGINARY_TOKEN_INDEX = new AtomicInteger(Integer.MIN_VALUE);
+  // Symbolic nodes outlive their ASTs, and the same names occur over and over across a project.
+  private static final Interner<String> IMAGES = Interners.newWeakInterner();
   private final DelphiTokenType tokenType;
   private final int tokenIndex;
   private final String image;
@@ -67,7 +71,7 @@ public final class SymbolicNode implements Node {
       boolean isIncludedNode) {
     this.tokenType = tokenType;
     this.tokenIndex = tokenIndex;
-    this.image = image;
+    this.image = image == null ? null : IMAGES.intern(image);
     this.beginLine = beginLine;
     this.endLine = endLine;
     this.beginColumn = beginColumn;
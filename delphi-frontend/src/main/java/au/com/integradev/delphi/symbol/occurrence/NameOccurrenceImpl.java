@@ -18,6 +18,7 @@
  */
 package au.com.integradev.delphi.symbol.occurrence;
 
+import au.com.integradev.delphi.symbol.NameKeys;
 import au.com.integradev.delphi.symbol.SymbolicNode;
 import java.util.Collections;
 import java.util.List;
@@ -31,6 +32,7 @@ public class NameOccurrenceImpl implements NameOccurrence {
   private final SymbolicNode location;
   private NameDeclaration declaration;
   private String image;
+  private String nameKey;
   private boolean isExplicitInvocation;
   private boolean isGeneric;
   private List<Type> typeParameters = Collections.emptyList();
@@ -61,6 +63,19 @@ public class NameOccurrenceImpl implements NameOccurrence {
     return image;
   }
 
+  /**
+   * Returns the case-folded image of this occurrence, which is used to look up declarations.
+   *
+   * @return case-folded image
+   * @see NameKeys#fold(String)
+   */
+  public String getNameKey() {
+    if (nameKey == null) {
+      nameKey = NameKeys.fold(getImage());
+    }
+    return nameKey;
+  }
+
   public void setNameDeclaration(NameDeclaration declaration) {
     this.declaration = declaration;
   }
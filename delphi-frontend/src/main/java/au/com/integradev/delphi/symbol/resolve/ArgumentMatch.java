@@ -0,0 +1,320 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2024 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.symbol.resolve;
+
+import static au.com.integradev.delphi.symbol.resolve.EqualityType.CONVERT_LEVEL_1;
+import static au.com.integradev.delphi.symbol.resolve.EqualityType.CONVERT_LEVEL_2;
+import static au.com.integradev.delphi.symbol.resolve.EqualityType.CONVERT_LEVEL_3;
+import static au.com.integradev.delphi.symbol.resolve.EqualityType.CONVERT_LEVEL_7;
+import static au.com.integradev.delphi.symbol.resolve.EqualityType.EQUAL;
+import static au.com.integradev.delphi.symbol.resolve.EqualityType.EXACT;
+import static au.com.integradev.delphi.symbol.resolve.EqualityType.INCOMPATIBLE_TYPES;
+import static au.com.integradev.delphi.symbol.resolve.VariantConversionType.INCOMPATIBLE_VARIANT;
+import static au.com.integradev.delphi.symbol.resolve.VariantConversionType.NO_CONVERSION_REQUIRED;
+import static java.lang.Math.abs;
+
+import au.com.integradev.delphi.symbol.resolve.TypeConverter.TypeConversion;
+import au.com.integradev.delphi.type.TypeUtils;
+import org.sonar.plugins.communitydelphi.api.type.CodePages;
+import org.sonar.plugins.communitydelphi.api.type.IntrinsicType;
+import org.sonar.plugins.communitydelphi.api.type.Type;
+import org.sonar.plugins.communitydelphi.api.type.Type.AnsiStringType;
+import org.sonar.plugins.communitydelphi.api.type.Type.CollectionType;
+import org.sonar.plugins.communitydelphi.api.type.Type.FileType;
+import org.sonar.plugins.communitydelphi.api.type.Type.IntegerType;
+import org.sonar.plugins.communitydelphi.api.type.Type.ProceduralType;
+import org.sonar.plugins.communitydelphi.api.type.Type.ProceduralType.ProceduralKind;
+import org.sonar.plugins.communitydelphi.api.type.Type.StructType;
+
+/**
+ * The part of matching an invocation argument to a parameter that only depends on their types.
+ *
+ * <p>This is everything that {@link InvocationResolver} needs to know about an argument/parameter
+ * pair, except for the checks that look at the argument expression itself (bounds violations,
+ * nil pointer literals and ambiguous procedural references).
+ *
+ * @see <a href="https://github.com/fpc/FPCSource/blob/main/compiler/htypechk.pas#L2884">
+ *     tcallcandidates.get_information</a>
+ */
+final class ArgumentMatch {
+  private final boolean exact;
+  private final EqualityType equality;
+  private final TypeConversion.Source conversionSource;
+  private final Type argumentType;
+  private final Type parameterType;
+  private double ordinalDistance;
+  private boolean signMismatch;
+  private boolean numericMismatch;
+  private boolean structMismatch;
+  private int proceduralDistance;
+  private int codePageDistance;
+  private VariantConversionType variantConversion;
+  private boolean invalidVariantConversion;
+
+  private ArgumentMatch(
+      boolean exact,
+      EqualityType equality,
+      TypeConversion.Source conversionSource,
+      Type argumentType,
+      Type parameterType) {
+    this.exact = exact;
+    this.equality = equality;
+    this.conversionSource = conversionSource;
+    this.argumentType = argumentType;
+    this.parameterType = parameterType;
+  }
+
+  static ArgumentMatch compute(
+      Type argumentType, Type parameterType, boolean equalTypeRequired, boolean constParameter) {
+    Type originalParameterType = parameterType;
+    EqualityType equality = TypeComparer.compare(argumentType, parameterType);
+    boolean exact = equality == EXACT;
+    TypeConversion.Source conversionSource = TypeConversion.Source.NONE;
+
+    if (!exact) {
+      if (equality == INCOMPATIBLE_TYPES) {
+        TypeConversion conversion = TypeConverter.convert(argumentType, parameterType);
+
+        if (conversion.isSuccessful()) {
+          argumentType = conversion.getFrom();
+          parameterType = conversion.getTo();
+          equality = conversion.getEquality();
+        }
+
+        conversionSource = conversion.getSource();
+      }
+
+      if (equality.ordinal() < EQUAL.ordinal() && equalTypeRequired) {
+        // Parameter requires an equal type so the previous match was not good enough
+        equality = varParameterAllowed(argumentType, originalParameterType, constParameter);
+      }
+    }
+
+    ArgumentMatch result =
+        new ArgumentMatch(exact, equality, conversionSource, argumentType, parameterType);
+
+    if (!exact && !equalTypeRequired) {
+      result.checkIntegerDistance();
+      result.checkRealDistance();
+      result.checkNumericMismatch();
+      result.checkStructTypes();
+      result.checkProceduralDistance();
+    }
+
+    result.checkCodePageDistance();
+    result.checkVariantConversions();
+
+    return result;
+  }
+
+  /**
+   * Whether the argument type was an exact match for the parameter type, before any implicit
+   * conversions were considered.
+   *
+   * @return true if the argument type is an exact match
+   */
+  boolean isExact() {
+    return exact;
+  }
+
+  EqualityType getEquality() {
+    return equality;
+  }
+
+  Type getArgumentType() {
+    return argumentType;
+  }
+
+  Type getParameterType() {
+    return parameterType;
+  }
+
+  /**
+   * Adds the conversion counts and distances of this match to an invocation candidate.
+   *
+   * @param candidate the candidate that the argument is being matched against
+   */
+  void applyTo(InvocationCandidate candidate) {
+    switch (conversionSource) {
+      case FROM:
+        candidate.incrementImplicitConversionFromCount();
+        break;
+      case TO:
+        candidate.incrementImplicitConversionToCount();
+        break;
+      default:
+        // Do nothing
+    }
+
+    candidate.increaseOrdinalDistance(ordinalDistance);
+    if (signMismatch) {
+      candidate.incrementSignMismatchCount();
+    }
+    if (numericMismatch) {
+      candidate.incrementNumericMismatchCount();
+    }
+    if (structMismatch) {
+      candidate.incrementStructMismatchCount();
+    }
+    candidate.increaseProceduralDistance(proceduralDistance);
+    candidate.increaseCodePageDistance(codePageDistance);
+    candidate.addVariantConversion(variantConversion);
+    if (invalidVariantConversion) {
+      candidate.setInvalid();
+    }
+  }
+
+  private void checkIntegerDistance() {
+    if (argumentType.isInteger() && parameterType.isInteger()) {
+      IntegerType argInteger = (IntegerType) argumentType;
+      IntegerType paramInteger = (IntegerType) parameterType;
+      ordinalDistance += argInteger.max().subtract(paramInteger.max()).abs().doubleValue();
+      signMismatch = argInteger.isSigned() != paramInteger.isSigned();
+    }
+  }
+
+  private void checkRealDistance() {
+    if (argumentType.isReal() && parameterType.isReal()) {
+      int argumentSize = argumentType.size();
+      int parameterSize = parameterType.size();
+      if (argumentSize > parameterSize) {
+        // Penalty for shrinking of precision
+        ordinalDistance += (argumentSize - parameterSize) * 16;
+      } else {
+        ordinalDistance += parameterSize - argumentSize;
+      }
+    }
+  }
+
+  private void checkNumericMismatch() {
+    numericMismatch = argumentType.isInteger() && parameterType.isReal();
+  }
+
+  private void checkStructTypes() {
+    if (argumentType.isStruct() && parameterType.isStruct()) {
+      StructType from = (StructType) argumentType;
+      StructType to = (StructType) parameterType;
+      structMismatch = from.kind() != to.kind();
+      ordinalDistance += calculateStructDistance(from, to);
+    }
+  }
+
+  private static int calculateStructDistance(Type from, Type to) {
+    int result = 0;
+    while (from.isDescendantOf(to)) {
+      ++result;
+      from = from.parent();
+    }
+    return result;
+  }
+
+  private void checkProceduralDistance() {
+    if (argumentType.isProcedural() && parameterType.isProcedural()) {
+      ProceduralKind argKind = ((ProceduralType) argumentType).kind();
+      ProceduralKind paramKind = ((ProceduralType) parameterType).kind();
+      proceduralDistance += abs(argKind.ordinal() - paramKind.ordinal());
+    }
+
+    if (argumentType.isPointer() && parameterType.isProcedural()) {
+      proceduralDistance += ((ProceduralType) parameterType).kind().ordinal();
+    }
+  }
+
+  private void checkCodePageDistance() {
+    if (!parameterType.isAnsiString()) {
+      return;
+    }
+
+    Integer codePage = null;
+
+    if (argumentType.isAnsiString()) {
+      codePage = ((AnsiStringType) argumentType).codePage();
+    } else if (TypeUtils.findBaseType(argumentType).is(IntrinsicType.PANSICHAR)) {
+      codePage = CodePages.CP_ACP;
+    }
+
+    if (codePage == null) {
+      return;
+    }
+
+    AnsiStringType to = (AnsiStringType) parameterType;
+    if (codePage == to.codePage() || to.codePage() == CodePages.CP_NONE) {
+      return;
+    }
+
+    switch (to.codePage()) {
+      case CodePages.CP_UTF8:
+        codePageDistance = 1;
+        break;
+      case CodePages.CP_ACP:
+        codePageDistance = 2;
+        break;
+      default:
+        codePageDistance = 3;
+        break;
+    }
+  }
+
+  // Keep track of implicit variant conversions
+  // Also invalidate candidates that would produce invalid variant conversions
+  private void checkVariantConversions() {
+    Type from = TypeUtils.findBaseType(argumentType);
+    Type to = TypeUtils.findBaseType(parameterType);
+    variantConversion = NO_CONVERSION_REQUIRED;
+    if (from.isVariant()) {
+      variantConversion = VariantConversionType.fromType(to);
+      invalidVariantConversion = variantConversion == INCOMPATIBLE_VARIANT;
+    } else if (to.isVariant()) {
+      variantConversion = VariantConversionType.fromType(from);
+    }
+  }
+
+  private static EqualityType varParameterAllowed(
+      Type argType, Type paramType, boolean constParameter) {
+    if (paramType.isUntyped() && !constParameter) {
+      return CONVERT_LEVEL_7;
+    }
+
+    if (paramType.isOpenArray()) {
+      if (argType.isDynamicArray()
+          && TypeComparer.equals(
+              ((CollectionType) argType).elementType(),
+              ((CollectionType) paramType).elementType())) {
+        return CONVERT_LEVEL_2;
+      } else if (TypeComparer.equals(argType, ((CollectionType) paramType).elementType())) {
+        return CONVERT_LEVEL_3;
+      }
+    }
+
+    if (paramType.isPointer() && argType.isPointer()) {
+      // An implicit pointer conversion is allowed
+      return CONVERT_LEVEL_1;
+    }
+
+    if (paramType.isFile()
+        && argType.isFile()
+        && !((FileType) argType).fileType().isUntyped()
+        && ((FileType) paramType).fileType().isUntyped()) {
+      // An implicit file conversion is allowed from a typed file to an untyped one
+      return CONVERT_LEVEL_1;
+    }
+
+    return INCOMPATIBLE_TYPES;
+  }
+}
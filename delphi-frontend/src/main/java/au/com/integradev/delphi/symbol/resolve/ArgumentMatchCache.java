@@ -0,0 +1,131 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2024 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.symbol.resolve;
+
+import au.com.integradev.delphi.type.factory.ClassReferenceTypeImpl;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import java.util.Objects;
+import org.sonar.plugins.communitydelphi.api.type.Parameter;
+import org.sonar.plugins.communitydelphi.api.type.Type;
+import org.sonar.plugins.communitydelphi.api.type.Type.ProceduralType;
+import org.sonar.plugins.communitydelphi.api.type.Type.ProceduralType.ProceduralKind;
+
+/**
+ * Memoizes the type-dependent part of overload resolution.
+ *
+ * <p>The same argument and parameter types are matched against each other over and over again (for
+ * example, every invocation of {@code IntToStr} or {@code Format}), so the result is computed once
+ * per pair of types.
+ *
+ * <p>Matches are keyed on the identity of the types, so argument types that are created for a
+ * single expression (like array constructors and anonymous class references) are never cached.
+ * The cache is bounded, since most type pairs are only matched a handful of times.
+ *
+ * <p>Types can still change while the symbol table is built, for example when a forward declared
+ * type is completed. The cache must be invalidated whenever that happens.
+ */
+public final class ArgumentMatchCache {
+  private static final long MAXIMUM_SIZE = 100_000;
+
+  private final Cache<Key, ArgumentMatch> matches =
+      CacheBuilder.newBuilder().maximumSize(MAXIMUM_SIZE).recordStats().build();
+
+  ArgumentMatch get(Type argumentType, Parameter parameter) {
+    boolean equalTypeRequired = parameter.isOut() || parameter.isVar();
+
+    if (isExpressionType(argumentType)) {
+      return ArgumentMatch.compute(
+          argumentType, parameter.getType(), equalTypeRequired, parameter.isConst());
+    }
+
+    Key key = new Key(argumentType, parameter.getType(), equalTypeRequired, parameter.isConst());
+    ArgumentMatch result = matches.getIfPresent(key);
+    if (result == null) {
+      result =
+          ArgumentMatch.compute(
+              argumentType, parameter.getType(), equalTypeRequired, parameter.isConst());
+      matches.put(key, result);
+    }
+    return result;
+  }
+
+  private static boolean isExpressionType(Type type) {
+    if (type.isArrayConstructor()) {
+      return true;
+    }
+    if (type.isProcedural()) {
+      return ((ProceduralType) type).kind() == ProceduralKind.ANONYMOUS;
+    }
+    return type instanceof ClassReferenceTypeImpl && ((ClassReferenceTypeImpl) type).isAnonymous();
+  }
+
+  /** Discards all cached matches, since the types they were computed from may have changed. */
+  public void invalidateAll() {
+    matches.invalidateAll();
+  }
+
+  public long size() {
+    return matches.size();
+  }
+
+  public CacheStats getStats() {
+    return matches.stats();
+  }
+
+  private static final class Key {
+    private final Type argumentType;
+    private final Type parameterType;
+    private final boolean equalTypeRequired;
+    private final boolean constParameter;
+
+    private Key(
+        Type argumentType, Type parameterType, boolean equalTypeRequired, boolean constParameter) {
+      this.argumentType = argumentType;
+      this.parameterType = parameterType;
+      this.equalTypeRequired = equalTypeRequired;
+      this.constParameter = constParameter;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Key key = (Key) o;
+      return argumentType == key.argumentType
+          && parameterType == key.parameterType
+          && equalTypeRequired == key.equalTypeRequired
+          && constParameter == key.constParameter;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(
+          System.identityHashCode(argumentType),
+          System.identityHashCode(parameterType),
+          equalTypeRequired,
+          constParameter);
+    }
+  }
+}
@@ -22,6 +22,7 @@ import static org.sonar.plugins.communitydelphi.api.type.TypeFactory.unknownType
 
 import au.com.integradev.delphi.operator.OperatorInvocableCollector;
 import au.com.integradev.delphi.type.TypeUtils;
+import au.com.integradev.delphi.type.factory.TypeFactoryImpl;
 import au.com.integradev.delphi.type.intrinsic.IntrinsicReturnType;
 import com.google.common.collect.Iterables;
 import java.util.List;
@@ -149,12 +150,16 @@ public final class ExpressionTypeResolver {
         || node.getTokenType() == DelphiTokenType.FILE;
   }
 
+  private InvocationResolver createInvocationResolver() {
+    return new InvocationResolver(((TypeFactoryImpl) typeFactory).getArgumentMatchCache());
+  }
+
   private Type resolveOperatorType(
       BinaryOperator operator, ExpressionNode leftExpression, ExpressionNode rightExpression) {
     var left = new InvocationArgument(leftExpression);
     var right = new InvocationArgument(rightExpression);
 
-    InvocationResolver resolver = new InvocationResolver();
+    InvocationResolver resolver = createInvocationResolver();
     resolver.addArgument(left);
     resolver.addArgument(right);
 
@@ -168,7 +173,7 @@ public final class ExpressionTypeResolver {
   private Type resolveOperatorType(UnaryOperator operator, ExpressionNode operandExpression) {
     var operand = new InvocationArgument(operandExpression);
 
-    InvocationResolver resolver = new InvocationResolver();
+    InvocationResolver resolver = createInvocationResolver();
     resolver.addArgument(operand);
 
     createOperatorInvocables(operator, operand.getType()).stream()
@@ -36,7 +36,7 @@ public class InvocationArgument implements Typed {
   private Type type;
   @Nullable private NameResolver resolver;
 
-  InvocationArgument(ExpressionNode expression) {
+  public InvocationArgument(ExpressionNode expression) {
     this.expression = expression;
     this.type = null;
 
@@ -18,10 +18,6 @@
  */
 package au.com.integradev.delphi.symbol.resolve;
 
-import static au.com.integradev.delphi.symbol.resolve.EqualityType.CONVERT_LEVEL_1;
-import static au.com.integradev.delphi.symbol.resolve.EqualityType.CONVERT_LEVEL_2;
-import static au.com.integradev.delphi.symbol.resolve.EqualityType.CONVERT_LEVEL_3;
-import static au.com.integradev.delphi.symbol.resolve.EqualityType.CONVERT_LEVEL_7;
 import static au.com.integradev.delphi.symbol.resolve.EqualityType.EQUAL;
 import static au.com.integradev.delphi.symbol.resolve.EqualityType.EXACT;
 import static au.com.integradev.delphi.symbol.resolve.EqualityType.INCOMPATIBLE_TYPES;
@@ -43,11 +39,8 @@ import static au.com.integradev.delphi.symbol.resolve.VariantConversionType.SMAL
 import static au.com.integradev.delphi.symbol.resolve.VariantConversionType.UNICODESTRING;
 import static au.com.integradev.delphi.symbol.resolve.VariantConversionType.WIDESTRING;
 import static au.com.integradev.delphi.symbol.resolve.VariantConversionType.WORD;
-import static java.lang.Math.abs;
 import static java.util.function.Predicate.not;
 
-import au.com.integradev.delphi.symbol.resolve.TypeConverter.TypeConversion;
-import au.com.integradev.delphi.type.TypeUtils;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ComparisonChain;
 import java.util.ArrayList;
@@ -55,17 +48,10 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
-import org.sonar.plugins.communitydelphi.api.type.CodePages;
-import org.sonar.plugins.communitydelphi.api.type.IntrinsicType;
 import org.sonar.plugins.communitydelphi.api.type.Parameter;
 import org.sonar.plugins.communitydelphi.api.type.Type;
-import org.sonar.plugins.communitydelphi.api.type.Type.AnsiStringType;
-import org.sonar.plugins.communitydelphi.api.type.Type.CollectionType;
-import org.sonar.plugins.communitydelphi.api.type.Type.FileType;
-import org.sonar.plugins.communitydelphi.api.type.Type.IntegerType;
 import org.sonar.plugins.communitydelphi.api.type.Type.ProceduralType;
 import org.sonar.plugins.communitydelphi.api.type.Type.ProceduralType.ProceduralKind;
-import org.sonar.plugins.communitydelphi.api.type.Type.StructType;
 
 /**
  * Resolves an invocation to the correct declaration. Based directly off of the tcallcandidates
@@ -77,10 +63,12 @@ import org.sonar.plugins.communitydelphi.api.type.Type.StructType;
 public class InvocationResolver {
   private final List<InvocationCandidate> candidates;
   private final List<InvocationArgument> arguments;
+  private final ArgumentMatchCache argumentMatches;
 
-  public InvocationResolver() {
+  public InvocationResolver(ArgumentMatchCache argumentMatches) {
     this.candidates = new ArrayList<>();
     this.arguments = new ArrayList<>();
+    this.argumentMatches = argumentMatches;
   }
 
   public void addCandidate(InvocationCandidate candidate) {
@@ -122,7 +110,7 @@ public class InvocationResolver {
    * @see <a href="https://github.com/fpc/FPCSource/blob/main/compiler/htypechk.pas#L2884">
    *     tcallcandidates.get_information</a>
    */
-  private static void processArgument(
+  private void processArgument(
       InvocationCandidate candidate, InvocationArgument argument, Parameter parameter) {
     Type argumentType = argument.getType();
     Type parameterType = parameter.getType();
@@ -143,56 +131,22 @@ public class InvocationResolver {
       argumentType = argument.findRoutineReferenceType(parameterType);
     }
 
-    EqualityType equality = TypeComparer.compare(argumentType, parameterType);
+    ArgumentMatch match = argumentMatches.get(argumentType, parameter);
+    EqualityType equality = match.getEquality();
 
-    if (equality != EXACT) {
-      if (equality == INCOMPATIBLE_TYPES) {
-        TypeConversion conversion = TypeConverter.convert(argumentType, parameterType);
-
-        if (conversion.isSuccessful()) {
-          argumentType = conversion.getFrom();
-          parameterType = conversion.getTo();
-          equality = conversion.getEquality();
-        }
-
-        switch (conversion.getSource()) {
-          case FROM:
-            candidate.incrementImplicitConversionFromCount();
-            break;
-          case TO:
-            candidate.incrementImplicitConversionToCount();
-            break;
-          default:
-            // Do nothing
-        }
-      }
-
-      if (equality.ordinal() < EQUAL.ordinal() && equalTypeRequired(parameter)) {
-        // Parameter requires an equal type so the previous match was not good enough
-        equality = varParameterAllowed(argumentType, parameter);
-      }
-
-      if (argumentType.isInteger()
-          && parameterType.isPointer()
+    if (!match.isExact()) {
+      if (match.getArgumentType().isInteger()
+          && match.getParameterType().isPointer()
           && !argument.isImplicitlyConvertibleToNilPointer()) {
         equality = INCOMPATIBLE_TYPES;
       }
 
-      if (argument.violatesBounds(parameterType)) {
+      if (argument.violatesBounds(match.getParameterType())) {
         equality = INCOMPATIBLE_TYPES;
       }
-
-      if (!equalTypeRequired(parameter)) {
-        checkIntegerDistance(candidate, argumentType, parameterType);
-        checkRealDistance(candidate, argumentType, parameterType);
-        checkNumericMismatch(candidate, argumentType, parameterType);
-        checkStructTypes(candidate, argumentType, parameterType);
-        checkProceduralDistance(candidate, argumentType, parameterType);
-      }
     }
 
-    checkCodePageDistance(candidate, argumentType, parameterType);
-    checkVariantConversions(candidate, argumentType, parameterType);
+    match.applyTo(candidate);
 
     // When an ambiguous procedural type was changed to an invocation, an exact match is
     // downgraded to equal.
@@ -242,172 +196,6 @@ public class InvocationResolver {
     }
   }
 
-  private static void checkIntegerDistance(
-      InvocationCandidate candidate, Type argumentType, Type parameterType) {
-    if (argumentType.isInteger() && parameterType.isInteger()) {
-      IntegerType argInteger = (IntegerType) argumentType;
-      IntegerType paramInteger = (IntegerType) parameterType;
-      double distance = argInteger.max().subtract(paramInteger.max()).abs().doubleValue();
-
-      candidate.increaseOrdinalDistance(distance);
-
-      if (argInteger.isSigned() != paramInteger.isSigned()) {
-        candidate.incrementSignMismatchCount();
-      }
-    }
-  }
-
-  private static void checkRealDistance(
-      InvocationCandidate candidate, Type argumentType, Type parameterType) {
-    if (argumentType.isReal() && parameterType.isReal()) {
-      int argumentSize = argumentType.size();
-      int parameterSize = parameterType.size();
-      int distance;
-      if (argumentSize > parameterSize) {
-        // Penalty for shrinking of precision
-        distance = (argumentSize - parameterSize) * 16;
-      } else {
-        distance = parameterSize - argumentSize;
-      }
-      candidate.increaseOrdinalDistance(distance);
-    }
-  }
-
-  private static void checkNumericMismatch(
-      InvocationCandidate candidate, Type argumentType, Type parameterType) {
-    if (argumentType.isInteger() && parameterType.isReal()) {
-      candidate.incrementNumericMismatchCount();
-    }
-  }
-
-  private static void checkStructTypes(
-      InvocationCandidate candidate, Type argumentType, Type parameterType) {
-    if (argumentType.isStruct() && parameterType.isStruct()) {
-      StructType from = (StructType) argumentType;
-      StructType to = (StructType) parameterType;
-      if (from.kind() != to.kind()) {
-        candidate.incrementStructMismatchCount();
-      }
-      candidate.increaseOrdinalDistance(calculateStructDistance(from, to));
-    }
-  }
-
-  private static int calculateStructDistance(Type from, Type to) {
-    int result = 0;
-    while (from.isDescendantOf(to)) {
-      ++result;
-      from = from.parent();
-    }
-    return result;
-  }
-
-  private static void checkProceduralDistance(
-      InvocationCandidate candidate, Type argumentType, Type parameterType) {
-    if (argumentType.isProcedural() && parameterType.isProcedural()) {
-      ProceduralKind argKind = ((ProceduralType) argumentType).kind();
-      ProceduralKind paramKind = ((ProceduralType) parameterType).kind();
-      int kindDistance = abs(argKind.ordinal() - paramKind.ordinal());
-
-      candidate.increaseProceduralDistance(kindDistance);
-    }
-
-    if (argumentType.isPointer() && parameterType.isProcedural()) {
-      candidate.increaseProceduralDistance(((ProceduralType) parameterType).kind().ordinal());
-    }
-  }
-
-  private static void checkCodePageDistance(
-      InvocationCandidate candidate, Type argumentType, Type parameterType) {
-    if (!parameterType.isAnsiString()) {
-      return;
-    }
-
-    Integer codePage = null;
-
-    if (argumentType.isAnsiString()) {
-      codePage = ((AnsiStringType) argumentType).codePage();
-    } else if (TypeUtils.findBaseType(argumentType).is(IntrinsicType.PANSICHAR)) {
-      codePage = CodePages.CP_ACP;
-    }
-
-    if (codePage == null) {
-      return;
-    }
-
-    AnsiStringType to = (AnsiStringType) parameterType;
-    if (codePage == to.codePage() || to.codePage() == CodePages.CP_NONE) {
-      return;
-    }
-
-    switch (to.codePage()) {
-      case CodePages.CP_UTF8:
-        candidate.increaseCodePageDistance(1);
-        break;
-      case CodePages.CP_ACP:
-        candidate.increaseCodePageDistance(2);
-        break;
-      default:
-        candidate.increaseCodePageDistance(3);
-        break;
-    }
-  }
-
-  // Keep track of implicit variant conversions
-  // Also invalidate candidates that would produce invalid variant conversions
-  private static void checkVariantConversions(
-      InvocationCandidate candidate, Type argumentType, Type parameterType) {
-    argumentType = TypeUtils.findBaseType(argumentType);
-    parameterType = TypeUtils.findBaseType(parameterType);
-    VariantConversionType variantConversionType = NO_CONVERSION_REQUIRED;
-    if (argumentType.isVariant()) {
-      variantConversionType = VariantConversionType.fromType(parameterType);
-      if (variantConversionType == INCOMPATIBLE_VARIANT) {
-        candidate.setInvalid();
-      }
-    } else if (parameterType.isVariant()) {
-      variantConversionType = VariantConversionType.fromType(argumentType);
-    }
-    candidate.addVariantConversion(variantConversionType);
-  }
-
-  private static EqualityType varParameterAllowed(Type argType, Parameter parameter) {
-    Type paramType = parameter.getType();
-
-    if (paramType.isUntyped() && !parameter.isConst()) {
-      return CONVERT_LEVEL_7;
-    }
-
-    if (paramType.isOpenArray()) {
-      if (argType.isDynamicArray()
-          && TypeComparer.equals(
-              ((CollectionType) argType).elementType(),
-              ((CollectionType) paramType).elementType())) {
-        return CONVERT_LEVEL_2;
-      } else if (TypeComparer.equals(argType, ((CollectionType) paramType).elementType())) {
-        return CONVERT_LEVEL_3;
-      }
-    }
-
-    if (paramType.isPointer() && argType.isPointer()) {
-      // An implicit pointer conversion is allowed
-      return CONVERT_LEVEL_1;
-    }
-
-    if (paramType.isFile()
-        && argType.isFile()
-        && !((FileType) argType).fileType().isUntyped()
-        && ((FileType) paramType).fileType().isUntyped()) {
-      // An implicit file conversion is allowed from a typed file to an untyped one
-      return CONVERT_LEVEL_1;
-    }
-
-    return INCOMPATIBLE_TYPES;
-  }
-
-  private static boolean equalTypeRequired(Parameter parameter) {
-    return parameter.isOut() || parameter.isVar();
-  }
-
   /**
    * Tries to choose the best candidate based on the invocation arguments. Losing candidates are
    * marked as invalid.
@@ -25,6 +25,7 @@ import au.com.integradev.delphi.symbol.SearchMode;
 import au.com.integradev.delphi.symbol.declaration.NameDeclarationImpl;
 import au.com.integradev.delphi.symbol.occurrence.NameOccurrenceImpl;
 import au.com.integradev.delphi.symbol.scope.RoutineScopeImpl;
+import au.com.integradev.delphi.type.factory.TypeFactoryImpl;
 import au.com.integradev.delphi.type.generic.TypeParameterTypeImpl;
 import java.util.ArrayList;
 import java.util.List;
@@ -489,7 +490,7 @@ public class NameResolutionHelper {
     return false;
   }
 
-  private static void completeTypeParameterReferences(RoutineImplementationNode routine) {
+  private void completeTypeParameterReferences(RoutineImplementationNode routine) {
     NameReferenceNode reference = routine.getNameReferenceNode().getLastName();
     NameDeclaration declaration = reference.getNameDeclaration();
     if (!(declaration instanceof GenerifiableDeclaration)) {
@@ -525,6 +526,7 @@ public class NameResolutionHelper {
 
       if (!argumentType.isAlias() && argumentType.isTypeParameter()) {
         ((TypeParameterTypeImpl) argumentType).setFullType(parameterType);
+        ((TypeFactoryImpl) typeFactory).getArgumentMatchCache().invalidateAll();
       }
     }
   }
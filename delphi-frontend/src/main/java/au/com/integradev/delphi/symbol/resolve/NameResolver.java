@@ -38,6 +38,7 @@ import au.com.integradev.delphi.symbol.scope.FileScopeImpl;
 import au.com.integradev.delphi.type.TypeUtils;
 import au.com.integradev.delphi.type.UnresolvedTypeImpl;
 import au.com.integradev.delphi.type.factory.StructTypeImpl;
+import au.com.integradev.delphi.type.factory.TypeFactoryImpl;
 import au.com.integradev.delphi.type.generic.TypeParameterTypeImpl;
 import au.com.integradev.delphi.type.generic.TypeSpecializationContextImpl;
 import au.com.integradev.delphi.type.intrinsic.IntrinsicReturnType;
@@ -930,7 +931,8 @@ public class NameResolver {
 
     argumentExpressions.forEach(getNameResolutionHelper()::resolveSubExpressions);
 
-    InvocationResolver resolver = new InvocationResolver();
+    InvocationResolver resolver =
+        new InvocationResolver(((TypeFactoryImpl) typeFactory).getArgumentMatchCache());
     argumentExpressions.stream().map(InvocationArgument::new).forEach(resolver::addArgument);
     createCandidates(resolver);
 
@@ -50,7 +50,7 @@ import org.sonar.plugins.communitydelphi.api.type.Type.ProceduralType;
 import org.sonar.plugins.communitydelphi.api.type.Type.StringType;
 import org.sonar.plugins.communitydelphi.api.type.Type.SubrangeType;
 
-final class TypeComparer {
+public final class TypeComparer {
   private TypeComparer() {
     // Utility class
   }
@@ -64,7 +64,7 @@ final class TypeComparer {
    * @see <a href="https://github.com/fpc/FPCSource/blob/main/compiler/defcmp.pas#L199">
    *     compare_defs_ext</a>
    */
-  static EqualityType compare(Type from, Type to) {
+  public static EqualityType compare(Type from, Type to) {
     if (from.is(to) && !from.isUntyped()) {
       return EXACT;
     }
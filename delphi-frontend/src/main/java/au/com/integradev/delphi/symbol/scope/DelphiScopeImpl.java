@@ -18,13 +18,13 @@
  */
 package au.com.integradev.delphi.symbol.scope;
 
+import au.com.integradev.delphi.symbol.NameKeys;
 import au.com.integradev.delphi.symbol.declaration.TypeNameDeclarationImpl;
 import au.com.integradev.delphi.type.factory.StructTypeImpl;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ListMultimap;
-import com.google.common.collect.Ordering;
-import com.google.common.collect.SetMultimap;
-import com.google.common.collect.TreeMultimap;
+import com.google.common.collect.MultimapBuilder;
+import com.google.common.collect.SortedSetMultimap;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
@@ -53,7 +53,7 @@ import org.sonar.plugins.communitydelphi.api.type.Type.StructType;
 public class DelphiScopeImpl implements DelphiScope {
   private final Set<NameDeclaration> declarationSet;
   private final ListMultimap<NameDeclaration, NameOccurrence> occurrencesByDeclaration;
-  private final SetMultimap<String, NameDeclaration> declarationsByName;
+  private final SortedSetMultimap<String, NameDeclaration> declarationsByName;
   private final Set<UnitNameDeclaration> unitDeclarations;
   private final Set<UnitImportNameDeclaration> importDeclarations;
   private final Set<TypeNameDeclaration> typeDeclarations;
@@ -67,7 +67,7 @@ public class DelphiScopeImpl implements DelphiScope {
   protected DelphiScopeImpl() {
     declarationSet = new HashSet<>();
     occurrencesByDeclaration = ArrayListMultimap.create();
-    declarationsByName = TreeMultimap.create(String.CASE_INSENSITIVE_ORDER, Ordering.natural());
+    declarationsByName = MultimapBuilder.hashKeys().treeSetValues().build();
     unitDeclarations = new HashSet<>();
     importDeclarations = new HashSet<>();
     typeDeclarations = new HashSet<>();
@@ -87,7 +87,7 @@ public class DelphiScopeImpl implements DelphiScope {
     checkForwardTypeDeclarations(declaration);
     checkForDuplicatedNameDeclaration(declaration);
     declarationSet.add(declaration);
-    declarationsByName.put(declaration.getImage(), declaration);
+    declarationsByName.put(NameKeys.fold(declaration.getImage()), declaration);
     addDeclarationByClass(declaration);
     handleHelperDeclaration(declaration);
   }
@@ -120,7 +120,7 @@ public class DelphiScopeImpl implements DelphiScope {
     }
 
     declarationsByName
-        .get(typeDeclaration.getName())
+        .get(NameKeys.fold(typeDeclaration.getName()))
         .removeIf(
             declaration -> {
               if (declaration instanceof TypeNameDeclaration) {
@@ -151,7 +151,7 @@ public class DelphiScopeImpl implements DelphiScope {
   }
 
   private void checkForDuplicatedNameDeclaration(NameDeclaration declaration) {
-    if (!declarationsByName.containsKey(declaration.getName())) {
+    if (!declarationsByName.containsKey(NameKeys.fold(declaration.getName()))) {
       return;
     }
 
@@ -168,7 +168,7 @@ public class DelphiScopeImpl implements DelphiScope {
       return true;
     }
 
-    Set<NameDeclaration> duplicates = declarationsByName.get(declaration.getImage());
+    Set<NameDeclaration> duplicates = declarationsByName.get(NameKeys.fold(declaration.getImage()));
 
     // Unit imports can clash with other declarations, except other imports
     if (declaration instanceof UnitImportNameDeclaration) {
@@ -247,8 +247,13 @@ public class DelphiScopeImpl implements DelphiScope {
       return;
     }
 
-    for (RoutineNameDeclaration declaration : this.getRoutineDeclarations()) {
-      if (isRoutineOverload(declaration, occurrence, result, overloadsRequireOverloadDirective())) {
+    for (NameDeclaration declaration : findDeclarationsByKey(NameKeys.of(occurrence))) {
+      if (declaration instanceof RoutineNameDeclaration
+          && isRoutineOverload(
+              (RoutineNameDeclaration) declaration,
+              occurrence,
+              result,
+              overloadsRequireOverloadDirective())) {
         result.add(declaration);
       }
     }
@@ -324,10 +329,10 @@ public class DelphiScopeImpl implements DelphiScope {
   public Set<NameDeclaration> findDeclaration(NameOccurrence occurrence) {
     Set<NameDeclaration> result = Collections.emptySet();
 
-    Set<NameDeclaration> found = declarationsByName.get(occurrence.getImage());
+    Set<NameDeclaration> found = findDeclarationsByKey(NameKeys.of(occurrence));
     if (occurrence.isAttributeReference()) {
       found = new HashSet<>(found);
-      found.addAll(declarationsByName.get(occurrence.getImage() + "Attribute"));
+      found.addAll(findDeclarationsByKey(NameKeys.fold(occurrence.getImage() + "Attribute")));
     }
 
     if (!found.isEmpty()) {
@@ -339,6 +344,17 @@ public class DelphiScopeImpl implements DelphiScope {
     return result;
   }
 
+  /**
+   * Returns the declarations in this scope with the specified name.
+   *
+   * @param key the case-folded name to search for
+   * @return declarations with the specified name
+   * @see NameKeys#fold(String)
+   */
+  protected Set<NameDeclaration> findDeclarationsByKey(String key) {
+    return declarationsByName.get(key);
+  }
+
   @Nullable
   @Override
   public DelphiScope getParent() {
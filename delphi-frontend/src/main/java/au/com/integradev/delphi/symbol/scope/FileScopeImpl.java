@@ -28,8 +28,6 @@ import au.com.integradev.delphi.antlr.ast.node.RoutineNameNodeImpl;
 import com.google.common.collect.Iterables;
 import java.util.ArrayDeque;
 import java.util.Deque;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
@@ -53,9 +51,9 @@ public abstract class FileScopeImpl extends DelphiScopeImpl implements FileScope
   private static final Logger LOG = LoggerFactory.getLogger(FileScopeImpl.class);
   private final String name;
   private final Deque<FileScope> imports = new ArrayDeque<>();
-  private Map<Integer, DelphiScope> registeredScopes = new HashMap<>();
-  private Map<Integer, NameDeclaration> registeredDeclarations = new HashMap<>();
-  private Map<Integer, NameOccurrence> registeredOccurrences = new HashMap<>();
+  private TokenIndexMap<DelphiScope> registeredScopes = new TokenIndexMap<>();
+  private TokenIndexMap<NameDeclaration> registeredDeclarations = new TokenIndexMap<>();
+  private TokenIndexMap<NameOccurrence> registeredOccurrences = new TokenIndexMap<>();
 
   protected FileScopeImpl(String name) {
     this.name = name;
@@ -95,7 +93,11 @@ public abstract class FileScopeImpl extends DelphiScopeImpl implements FileScope
 
   @Override
   public Set<NameDeclaration> shallowFindDeclaration(NameOccurrence occurrence) {
-    return super.findDeclaration(occurrence).stream()
+    Set<NameDeclaration> result = super.findDeclaration(occurrence);
+    if (result.isEmpty()) {
+      return result;
+    }
+    return result.stream()
         .map(NameDeclaration.class::cast)
         .filter(not(NameDeclaration::isImplementationDeclaration))
         .filter(not(UnitImportNameDeclaration.class::isInstance))
@@ -197,17 +199,17 @@ public abstract class FileScopeImpl extends DelphiScopeImpl implements FileScope
 
   /** Removes all scope registrations */
   public void unregisterScopes() {
-    registeredScopes = new HashMap<>(0);
+    registeredScopes = new TokenIndexMap<>();
   }
 
   /** Removes all name declaration registrations */
   public void unregisterDeclarations() {
-    registeredDeclarations = new HashMap<>(0);
+    registeredDeclarations = new TokenIndexMap<>();
   }
 
   /** Removes all name occurrence registrations */
   public void unregisterOccurrences() {
-    registeredOccurrences = new HashMap<>(0);
+    registeredOccurrences = new TokenIndexMap<>();
   }
 
   /**
@@ -0,0 +1,101 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2024 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.symbol.scope;
+
+import java.util.Arrays;
+
+/**
+ * A compact map from token indices to values, used to register symbol information against AST
+ * nodes.
+ *
+ * <p>Entries are appended to primitive arrays as they're registered, then sorted on the first
+ * lookup so that lookups are binary searches. If a token index is registered more than once, the
+ * last registration wins.
+ *
+ * @param <V> the type of the registered values
+ */
+final class TokenIndexMap<V> {
+  private static final int[] EMPTY_KEYS = new int[0];
+  private static final Object[] EMPTY_VALUES = new Object[0];
+
+  private int[] keys = EMPTY_KEYS;
+  private Object[] values = EMPTY_VALUES;
+  private int size;
+  private boolean sorted = true;
+
+  void put(int tokenIndex, V value) {
+    if (size == keys.length) {
+      int capacity = Math.max(16, size + (size >> 1));
+      keys = Arrays.copyOf(keys, capacity);
+      values = Arrays.copyOf(values, capacity);
+    }
+
+    if (size > 0 && tokenIndex <= keys[size - 1]) {
+      sorted = false;
+    }
+
+    keys[size] = tokenIndex;
+    values[size] = value;
+    ++size;
+  }
+
+  @SuppressWarnings("unchecked")
+  V get(int tokenIndex) {
+    if (!sorted) {
+      sort();
+    }
+
+    int position = Arrays.binarySearch(keys, 0, size, tokenIndex);
+    return position < 0 ? null : (V) values[position];
+  }
+
+  int size() {
+    return size;
+  }
+
+  private void sort() {
+    // Sort by token index, then by registration order, without boxing either of them.
+    long[] order = new long[size];
+    for (int i = 0; i < size; ++i) {
+      order[i] = ((long) keys[i] << 32) | i;
+    }
+    Arrays.sort(order);
+
+    int[] sortedKeys = new int[size];
+    Object[] sortedValues = new Object[size];
+    int count = 0;
+
+    for (int i = 0; i < size; ++i) {
+      int index = (int) order[i];
+      int key = keys[index];
+      if (count > 0 && sortedKeys[count - 1] == key) {
+        // Later registrations replace earlier ones.
+        --count;
+      }
+      sortedKeys[count] = key;
+      sortedValues[count] = values[index];
+      ++count;
+    }
+
+    keys = sortedKeys;
+    values = sortedValues;
+    size = count;
+    sorted = true;
+  }
+}
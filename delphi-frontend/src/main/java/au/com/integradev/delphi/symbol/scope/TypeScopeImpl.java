@@ -22,10 +22,21 @@ import static org.sonar.plugins.communitydelphi.api.symbol.scope.DelphiScope.unk
 import static org.sonar.plugins.communitydelphi.api.type.TypeFactory.unknownType;
 
 import au.com.integradev.delphi.type.generic.GenerifiableTypeImpl;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import javax.annotation.Nullable;
 import org.sonar.plugins.communitydelphi.api.symbol.NameOccurrence;
 import org.sonar.plugins.communitydelphi.api.symbol.declaration.NameDeclaration;
+import org.sonar.plugins.communitydelphi.api.symbol.declaration.PropertyNameDeclaration;
+import org.sonar.plugins.communitydelphi.api.symbol.declaration.RoutineNameDeclaration;
+import org.sonar.plugins.communitydelphi.api.symbol.declaration.TypeNameDeclaration;
+import org.sonar.plugins.communitydelphi.api.symbol.declaration.UnitImportNameDeclaration;
+import org.sonar.plugins.communitydelphi.api.symbol.declaration.UnitNameDeclaration;
+import org.sonar.plugins.communitydelphi.api.symbol.declaration.VariableNameDeclaration;
 import org.sonar.plugins.communitydelphi.api.symbol.scope.DelphiScope;
 import org.sonar.plugins.communitydelphi.api.symbol.scope.TypeScope;
 import org.sonar.plugins.communitydelphi.api.type.Type;
@@ -88,16 +99,44 @@ public class TypeScopeImpl extends DelphiScopeImpl implements TypeScope {
   /**
    * Specialized type scopes just wrap a generic type's "real" scope. Name occurrences of
    * specialized declarations are forwarded to their generic declarations in the real scope.
+   *
+   * <p>Declarations are specialized lazily, the first time a lookup reaches them. Most members of
+   * a specialized type are never referenced, so specializing them all up front would be wasted.
    */
   private static final class SpecializedTypeScope extends TypeScopeImpl {
-    private final DelphiScope genericScope;
+    private final DelphiScopeImpl genericScope;
+    private final TypeSpecializationContext context;
+    private final Map<NameDeclaration, NameDeclaration> specializedDeclarations;
+    private Map<String, HelperType> helpersByType;
+    private int indexedTypeDeclarations;
 
     private SpecializedTypeScope(DelphiScope scope, TypeSpecializationContext context) {
-      this.genericScope = scope;
-      scope.getAllDeclarations().stream()
-          .map(NameDeclaration.class::cast)
-          .map(declaration -> declaration.specialize(context))
-          .forEach(super::addDeclaration);
+      this.genericScope = (DelphiScopeImpl) scope;
+      this.context = context;
+      this.specializedDeclarations = new HashMap<>();
+    }
+
+    private NameDeclaration specialize(NameDeclaration declaration) {
+      NameDeclaration result = specializedDeclarations.get(declaration);
+      if (result == null) {
+        result = declaration.specialize(context);
+        specializedDeclarations.put(declaration, result);
+      }
+      return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends NameDeclaration> Set<T> specializeAll(Set<T> declarations) {
+      Set<T> result = new HashSet<>();
+      for (T declaration : declarations) {
+        result.add((T) specialize(declaration));
+      }
+      return result;
+    }
+
+    @Override
+    protected Set<NameDeclaration> findDeclarationsByKey(String key) {
+      return specializeAll(genericScope.findDeclarationsByKey(key));
     }
 
     @Override
@@ -107,7 +146,65 @@ public class TypeScopeImpl extends DelphiScopeImpl implements TypeScope {
 
     @Override
     public Set<NameDeclaration> addNameOccurrence(NameOccurrence occurrence) {
-      return ((DelphiScopeImpl) genericScope).addNameOccurrence(occurrence);
+      return genericScope.addNameOccurrence(occurrence);
+    }
+
+    @Override
+    protected HelperType findHelper(Type type) {
+      // A type can be specialized while its generic declaration is still being visited, so the
+      // index is rebuilt if type declarations have been added to the generic scope since.
+      int typeDeclarations = genericScope.getTypeDeclarations().size();
+      if (helpersByType == null || indexedTypeDeclarations != typeDeclarations) {
+        helpersByType = indexHelpers();
+        indexedTypeDeclarations = typeDeclarations;
+      }
+      return helpersByType.get(type.getImage());
+    }
+
+    private Map<String, HelperType> indexHelpers() {
+      Map<String, HelperType> result = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+      for (TypeNameDeclaration declaration : getTypeDeclarations()) {
+        Type helper = declaration.getType();
+        if (helper.isHelper()) {
+          result.put(((HelperType) helper).extendedType().getImage(), (HelperType) helper);
+        }
+      }
+      return result;
+    }
+
+    @Override
+    public Set<NameDeclaration> getAllDeclarations() {
+      return Collections.unmodifiableSet(specializeAll(genericScope.getAllDeclarations()));
+    }
+
+    @Override
+    public Set<UnitNameDeclaration> getUnitDeclarations() {
+      return Collections.unmodifiableSet(specializeAll(genericScope.getUnitDeclarations()));
+    }
+
+    @Override
+    public Set<UnitImportNameDeclaration> getImportDeclarations() {
+      return Collections.unmodifiableSet(specializeAll(genericScope.getImportDeclarations()));
+    }
+
+    @Override
+    public Set<TypeNameDeclaration> getTypeDeclarations() {
+      return Collections.unmodifiableSet(specializeAll(genericScope.getTypeDeclarations()));
+    }
+
+    @Override
+    public Set<PropertyNameDeclaration> getPropertyDeclarations() {
+      return Collections.unmodifiableSet(specializeAll(genericScope.getPropertyDeclarations()));
+    }
+
+    @Override
+    public Set<RoutineNameDeclaration> getRoutineDeclarations() {
+      return Collections.unmodifiableSet(specializeAll(genericScope.getRoutineDeclarations()));
+    }
+
+    @Override
+    public Set<VariableNameDeclaration> getVariableDeclarations() {
+      return Collections.unmodifiableSet(specializeAll(genericScope.getVariableDeclarations()));
     }
   }
 }
@@ -43,6 +43,16 @@ public final class ClassReferenceTypeImpl extends TypeImpl implements ClassRefer
     return Objects.requireNonNullElse(image, "class of " + classType.getImage());
   }
 
+  /**
+   * Whether this class reference type has no name of its own, like the type of a class name used as
+   * an expression.
+   *
+   * @return true if the type is anonymous
+   */
+  public boolean isAnonymous() {
+    return image == null;
+  }
+
   @Override
   public int size() {
     return size;
@@ -19,6 +19,7 @@
 package au.com.integradev.delphi.type.factory;
 
 import au.com.integradev.delphi.type.generic.GenerifiableTypeImpl;
+import au.com.integradev.delphi.type.generic.SpecializationCache;
 import com.google.common.collect.Iterables;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -39,7 +40,9 @@ public final class ProceduralTypeImpl extends GenerifiableTypeImpl implements Pr
       ProceduralKind kind,
       List<Parameter> parameters,
       Type returnType,
-      boolean variadic) {
+      boolean variadic,
+      SpecializationCache specializationCache) {
+    super(specializationCache);
     this.size = size;
     this.kind = kind;
     this.parameters = List.copyOf(parameters);
@@ -151,6 +154,7 @@ public final class ProceduralTypeImpl extends GenerifiableTypeImpl implements Pr
             .map(parameter -> parameter.specialize(context))
             .collect(Collectors.toUnmodifiableList()),
         returnType.specialize(context),
-        variadic);
+        variadic,
+        getSpecializationCache());
   }
 }
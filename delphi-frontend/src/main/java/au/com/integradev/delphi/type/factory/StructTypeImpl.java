@@ -20,15 +20,21 @@ package au.com.integradev.delphi.type.factory;
 
 import static java.util.function.Predicate.not;
 
+import au.com.integradev.delphi.symbol.NameKeys;
 import au.com.integradev.delphi.symbol.scope.TypeScopeImpl;
+import au.com.integradev.delphi.type.TypeImpl;
 import au.com.integradev.delphi.type.generic.GenerifiableTypeImpl;
+import au.com.integradev.delphi.type.generic.SpecializationCache;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 import org.sonar.plugins.communitydelphi.api.symbol.declaration.NameDeclaration;
 import org.sonar.plugins.communitydelphi.api.symbol.declaration.PropertyNameDeclaration;
 import org.sonar.plugins.communitydelphi.api.symbol.scope.DelphiScope;
@@ -46,6 +52,11 @@ public class StructTypeImpl extends GenerifiableTypeImpl implements StructType {
   private StructKind kind;
   private Type parent;
   private List<Type> attributeTypes;
+  private StructTypeImpl fullType;
+  private String cachedImage;
+  private AncestorImages ancestorImages;
+  private final Set<StructTypeImpl> descendants =
+      Collections.newSetFromMap(new IdentityHashMap<>());
 
   StructTypeImpl(
       List<ImagePart> imageParts,
@@ -53,7 +64,9 @@ public class StructTypeImpl extends GenerifiableTypeImpl implements StructType {
       DelphiScope scope,
       Set<Type> ancestorList,
       StructKind kind,
-      List<Type> attributeTypes) {
+      List<Type> attributeTypes,
+      SpecializationCache specializationCache) {
+    super(specializationCache);
     this.imageParts = imageParts;
     this.size = size;
     this.scope = scope;
@@ -64,6 +77,7 @@ public class StructTypeImpl extends GenerifiableTypeImpl implements StructType {
 
   private void setAncestors(Set<Type> ancestorList) {
     this.ancestorList = Set.copyOf(ancestorList);
+    invalidateAncestorImages();
     if (isInterface()) {
       this.parent = Iterables.getFirst(ancestorList, TypeFactory.unknownType());
     } else {
@@ -78,7 +92,10 @@ public class StructTypeImpl extends GenerifiableTypeImpl implements StructType {
 
   @Override
   public String getImage() {
-    return imageParts.stream().map(ImagePart::toString).collect(Collectors.joining("."));
+    if (cachedImage == null) {
+      cachedImage = imageParts.stream().map(ImagePart::toString).collect(Collectors.joining("."));
+    }
+    return cachedImage;
   }
 
   @Override
@@ -88,6 +105,15 @@ public class StructTypeImpl extends GenerifiableTypeImpl implements StructType {
 
   @Override
   public boolean isDescendantOf(String image) {
+    if (image == null) {
+      return false;
+    }
+
+    Set<String> ancestorImages = getAncestorImages().images;
+    if (ancestorImages != null) {
+      return ancestorImages.contains(NameKeys.fold(image));
+    }
+
     for (Type ancestor : ancestorList) {
       if (ancestor.is(image) || ancestor.isDescendantOf(image)) {
         return true;
@@ -96,6 +122,64 @@ public class StructTypeImpl extends GenerifiableTypeImpl implements StructType {
     return false;
   }
 
+  /**
+   * Returns the case-folded images of all ancestors of this type, including indirect ones.
+   *
+   * <p>The images are collected once, and discarded when the ancestors of this type or of any of
+   * its ancestors change.
+   *
+   * @return ancestor images of this type
+   */
+  private AncestorImages getAncestorImages() {
+    AncestorImages cached = ancestorImages;
+    if (cached == null) {
+      cached = collectAncestorImages();
+      ancestorImages = cached;
+    }
+    return cached;
+  }
+
+  private AncestorImages collectAncestorImages() {
+    Set<String> result = new HashSet<>();
+
+    for (Type ancestor : ancestorList) {
+      if (!(ancestor instanceof TypeImpl)) {
+        result = null;
+        continue;
+      }
+
+      if (ancestor instanceof StructTypeImpl) {
+        StructTypeImpl structAncestor = (StructTypeImpl) ancestor;
+        Set<String> indirectAncestors = structAncestor.getAncestorImages().images;
+        structAncestor.descendants.add(this);
+
+        if (indirectAncestors == null) {
+          result = null;
+        } else if (result != null) {
+          result.addAll(indirectAncestors);
+        }
+      }
+
+      if (result != null) {
+        result.add(NameKeys.fold(ancestor.getImage()));
+      }
+    }
+
+    return new AncestorImages(result == null ? null : Collections.unmodifiableSet(result));
+  }
+
+  private void invalidateAncestorImages() {
+    if (ancestorImages == null) {
+      // Descendants can only have collected images from this type while they were cached
+      return;
+    }
+
+    ancestorImages = null;
+    List<StructTypeImpl> invalidated = new ArrayList<>(descendants);
+    descendants.clear();
+    invalidated.forEach(StructTypeImpl::invalidateAncestorImages);
+  }
+
   @Override
   public Type parent() {
     return parent;
@@ -142,10 +226,14 @@ public class StructTypeImpl extends GenerifiableTypeImpl implements StructType {
    * @param fullType Type representing the full type declaration
    */
   public void setFullType(StructType fullType) {
+    if (fullType instanceof StructTypeImpl) {
+      this.fullType = (StructTypeImpl) fullType;
+    }
     this.scope = fullType.typeScope();
     this.ancestorList = ImmutableSet.copyOf(fullType.ancestorList());
     this.kind = fullType.kind();
     this.parent = fullType.parent();
+    invalidateAncestorImages();
   }
 
   @Override
@@ -153,6 +241,12 @@ public class StructTypeImpl extends GenerifiableTypeImpl implements StructType {
     return attributeTypes;
   }
 
+  @Override
+  protected GenerifiableTypeImpl canonicalType() {
+    // A forward declaration shares its specializations with the full type declaration
+    return fullType == null ? this : fullType;
+  }
+
   @Override
   public boolean canBeSpecialized(TypeSpecializationContext context) {
     for (ImagePart part : imageParts) {
@@ -183,7 +277,8 @@ public class StructTypeImpl extends GenerifiableTypeImpl implements StructType {
         scope,
         ancestorList,
         kind,
-        attributeTypes);
+        attributeTypes,
+        getSpecializationCache());
   }
 
   @Override
@@ -223,6 +318,15 @@ public class StructTypeImpl extends GenerifiableTypeImpl implements StructType {
     }
   }
 
+  private static final class AncestorImages {
+    // Null if an ancestor can match an image in some other way, such as an alias type
+    @Nullable private final Set<String> images;
+
+    private AncestorImages(@Nullable Set<String> images) {
+      this.images = images;
+    }
+  }
+
   static final class ImagePart {
     private final String name;
     private final List<Type> typeParameters;
@@ -25,7 +25,9 @@ import au.com.integradev.delphi.compiler.Architecture;
 import au.com.integradev.delphi.compiler.CompilerVersion;
 import au.com.integradev.delphi.compiler.Platform;
 import au.com.integradev.delphi.compiler.Toolchain;
+import au.com.integradev.delphi.symbol.resolve.ArgumentMatchCache;
 import au.com.integradev.delphi.type.factory.StructTypeImpl.ImagePart;
+import au.com.integradev.delphi.type.generic.SpecializationCache;
 import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -85,6 +87,8 @@ public class TypeFactoryImpl implements TypeFactory {
   private final PointerType nilPointer;
   private final FileType untypedFile;
   private final CollectionType emptySet;
+  private final SpecializationCache specializationCache = new SpecializationCache();
+  private final ArgumentMatchCache argumentMatchCache = new ArgumentMatchCache();
 
   public TypeFactoryImpl(Toolchain toolchain, CompilerVersion compilerVersion) {
     this.toolchain = toolchain;
@@ -110,6 +114,14 @@ public class TypeFactoryImpl implements TypeFactory {
             ((IntegerType) getIntrinsic(IntrinsicType.INTEGER)).max());
   }
 
+  public SpecializationCache getSpecializationCache() {
+    return specializationCache;
+  }
+
+  public ArgumentMatchCache getArgumentMatchCache() {
+    return argumentMatchCache;
+  }
+
   private boolean isReal48Bit() {
     // See: http://www.ebob42.eu/delphi4/language.htm
     return compilerVersion.compareTo(VERSION_4) < 0;
@@ -369,7 +381,8 @@ public class TypeFactoryImpl implements TypeFactory {
 
   private ProceduralType createProcedural(
       ProceduralKind kind, List<Parameter> parameters, Type returnType, boolean variadic) {
-    return new ProceduralTypeImpl(proceduralSize(kind), kind, parameters, returnType, variadic);
+    return new ProceduralTypeImpl(
+        proceduralSize(kind), kind, parameters, returnType, variadic, specializationCache);
   }
 
   @Override
@@ -388,7 +401,7 @@ public class TypeFactoryImpl implements TypeFactory {
   }
 
   public CollectionType array(@Nullable String image, Type elementType, Set<ArrayOption> options) {
-    return new ArrayTypeImpl(image, pointerSize(), elementType, options);
+    return new ArrayTypeImpl(image, pointerSize(), elementType, options, specializationCache);
   }
 
   public CollectionType multiDimensionalArray(
@@ -531,7 +544,13 @@ public class TypeFactoryImpl implements TypeFactory {
     }
 
     return new StructTypeImpl(
-        imageParts, pointerSize(), node.getScope(), ancestors, kind, attributeTypes);
+        imageParts,
+        pointerSize(),
+        node.getScope(),
+        ancestors,
+        kind,
+        attributeTypes,
+        specializationCache);
   }
 
   private static List<Type> getAttributeTypes(TypeDeclarationNode typeDeclaration) {
@@ -554,7 +573,8 @@ public class TypeFactoryImpl implements TypeFactory {
         getAncestors(declaration, kind),
         node.getFor().getType(),
         kind,
-        getAttributeTypes(declaration));
+        getAttributeTypes(declaration),
+        specializationCache);
   }
 
   public IntegerSubrangeType anonymousUInt15() {
@@ -19,8 +19,6 @@
 package au.com.integradev.delphi.type.generic;
 
 import au.com.integradev.delphi.type.TypeImpl;
-import java.util.HashMap;
-import java.util.Map;
 import org.sonar.plugins.communitydelphi.api.type.Type;
 import org.sonar.plugins.communitydelphi.api.type.TypeSpecializationContext;
 
@@ -41,10 +39,14 @@ import org.sonar.plugins.communitydelphi.api.type.TypeSpecializationContext;
  *     Generics</a>
  */
 public abstract class GenerifiableTypeImpl extends TypeImpl {
-  private final Map<TypeSpecializationContext, GenerifiableTypeImpl> cache;
+  private final SpecializationCache specializationCache;
 
-  protected GenerifiableTypeImpl() {
-    cache = new HashMap<>();
+  protected GenerifiableTypeImpl(SpecializationCache specializationCache) {
+    this.specializationCache = specializationCache;
+  }
+
+  protected SpecializationCache getSpecializationCache() {
+    return specializationCache;
   }
 
   /**
@@ -55,24 +57,43 @@ public abstract class GenerifiableTypeImpl extends TypeImpl {
    */
   @Override
   public final Type specialize(TypeSpecializationContext context) {
+    GenerifiableTypeImpl canonical = canonicalType();
+    if (canonical != this) {
+      return canonical.specialize(context);
+    }
+
     if (context.hasSignatureMismatch() || !canBeSpecialized(context)) {
       return this;
     }
 
-    GenerifiableTypeImpl result = cache.get(context);
+    GenerifiableTypeImpl result = specializationCache.get(this, context);
     if (result == null) {
       result = this.doSpecialization(context);
       if (result.is(this)) {
         result = this;
       } else {
-        cache.put(context, result);
-        result.doAfterSpecialization(context);
+        GenerifiableTypeImpl specialized = result;
+        result = specializationCache.putIfAbsent(this, context, specialized);
+        if (result == specialized) {
+          result.doAfterSpecialization(context);
+        }
       }
     }
 
     return result;
   }
 
+  /**
+   * Returns the type that specializations of this type are cached against. Types that are
+   * interchangeable with another type (like a forward declaration and its full declaration) should
+   * return the same canonical type, so that they share specializations.
+   *
+   * @return the canonical type for specialization
+   */
+  protected GenerifiableTypeImpl canonicalType() {
+    return this;
+  }
+
   /**
    * Called on the generic type. This is where we actually do the work to specialize a type.
    *
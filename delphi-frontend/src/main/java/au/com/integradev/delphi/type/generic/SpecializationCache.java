@@ -0,0 +1,110 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2024 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.type.generic;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.Nullable;
+import org.sonar.plugins.communitydelphi.api.type.TypeSpecializationContext;
+
+/**
+ * Interns specialized types for the lifetime of a type factory.
+ *
+ * <p>Every generifiable type created by a type factory shares the factory's cache. Specializations
+ * are keyed on the identity of the generic type and the specialization context, so a specialization
+ * (like {@code TList<String>}) is only created once for each generic type instance. A forward
+ * declaration shares its specializations with its full declaration, since both specialize through
+ * {@link GenerifiableTypeImpl#canonicalType()}. Other interchangeable types are not unified, so an
+ * alias of a generic type or a generic type declared by a unit that is resolved again still gets
+ * its own specializations.
+ */
+public final class SpecializationCache {
+  private final Map<Key, GenerifiableTypeImpl> specializations = new ConcurrentHashMap<>();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  @Nullable
+  GenerifiableTypeImpl get(GenerifiableTypeImpl genericType, TypeSpecializationContext context) {
+    GenerifiableTypeImpl result = specializations.get(new Key(genericType, context));
+    if (result == null) {
+      misses.increment();
+    } else {
+      hits.increment();
+    }
+    return result;
+  }
+
+  /**
+   * Adds a specialization to the cache, unless one was added concurrently.
+   *
+   * @param genericType the generic type that was specialized
+   * @param context the context of the specialization
+   * @param specializedType the specialized type
+   * @return the specialization in the cache
+   */
+  GenerifiableTypeImpl putIfAbsent(
+      GenerifiableTypeImpl genericType,
+      TypeSpecializationContext context,
+      GenerifiableTypeImpl specializedType) {
+    GenerifiableTypeImpl existing =
+        specializations.putIfAbsent(new Key(genericType, context), specializedType);
+    return existing == null ? specializedType : existing;
+  }
+
+  public long getHits() {
+    return hits.sum();
+  }
+
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  public int size() {
+    return specializations.size();
+  }
+
+  private static final class Key {
+    private final GenerifiableTypeImpl genericType;
+    private final TypeSpecializationContext context;
+
+    private Key(GenerifiableTypeImpl genericType, TypeSpecializationContext context) {
+      this.genericType = genericType;
+      this.context = context;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Key key = (Key) o;
+      return genericType == key.genericType && context.equals(key.context);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(System.identityHashCode(genericType), context);
+    }
+  }
+}
@@ -18,6 +18,7 @@
  */
 package org.sonar.plugins.communitydelphi.api.check;
 
+import au.com.integradev.delphi.preprocessor.CompilerDirectiveIndex;
 import au.com.integradev.delphi.preprocessor.CompilerSwitchRegistry;
 import au.com.integradev.delphi.reporting.DelphiIssueBuilder;
 import java.util.List;
@@ -58,6 +59,15 @@ public interface DelphiCheckContext {
    */
   CompilerSwitchRegistry getCompilerSwitchRegistry();
 
+  /**
+   * Returns the compiler directives of the current file, as parsed by the preprocessor
+   *
+   * @return compiler directive index
+   */
+  default CompilerDirectiveIndex getCompilerDirectiveIndex() {
+    return getAst().getDelphiFile().getCompilerDirectiveIndex();
+  }
+
   /**
    * Returns a compiler directive parser
    *
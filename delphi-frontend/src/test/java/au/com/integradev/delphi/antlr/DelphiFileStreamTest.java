@@ -0,0 +1,76 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2024 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.antlr;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.antlr.runtime.CharStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DelphiFileStreamTest {
+  @Test
+  void testLookaheadShouldBeLowercase(@TempDir Path tempDir) throws IOException {
+    DelphiFileStream stream = create(tempDir, "BEGIN", UTF_8.name());
+
+    assertThat(stream.LA(1)).isEqualTo('b');
+    stream.consume();
+    assertThat(stream.LA(-1)).isEqualTo('b');
+    assertThat(stream.LA(1)).isEqualTo('e');
+    assertThat(stream.LA(4)).isEqualTo('n');
+    assertThat(stream.LA(5)).isEqualTo(CharStream.EOF);
+    assertThat(stream.substring(0, 4)).isEqualTo("BEGIN");
+  }
+
+  @Test
+  void testLinesShouldBeSplitOnAnyLineTerminator(@TempDir Path tempDir) throws IOException {
+    DelphiFileStream stream = create(tempDir, "A\r\nB\rC\n\nD\n", UTF_8.name());
+
+    assertThat(stream.getLines()).containsExactly("A", "B", "C", "", "D");
+  }
+
+  @Test
+  void testByteOrderMarkShouldOverrideProvidedEncoding(@TempDir Path tempDir) throws IOException {
+    Path file = tempDir.resolve("Utf16.pas");
+    byte[] content = "unit Foo;".getBytes(StandardCharsets.UTF_16LE);
+    byte[] bytes = new byte[content.length + 2];
+    bytes[0] = (byte) 0xFF;
+    bytes[1] = (byte) 0xFE;
+    System.arraycopy(content, 0, bytes, 2, content.length);
+    Files.write(file, bytes);
+
+    DelphiFileStream stream = new DelphiFileStream(file.toString(), UTF_8.name());
+
+    assertThat(stream.getEncoding()).isEqualTo("UTF-16LE");
+    assertThat(stream.size()).isEqualTo(9);
+    assertThat(stream.getLines()).containsExactly("unit Foo;");
+  }
+
+  private static DelphiFileStream create(Path tempDir, String content, String encoding)
+      throws IOException {
+    Path file = tempDir.resolve("Test.pas");
+    Files.writeString(file, content, UTF_8);
+    return new DelphiFileStream(file.toString(), encoding);
+  }
+}
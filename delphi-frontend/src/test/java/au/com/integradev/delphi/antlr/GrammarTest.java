@@ -22,22 +22,30 @@
  */
 package au.com.integradev.delphi.antlr;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import au.com.integradev.delphi.antlr.ast.DelphiTreeAdaptor;
 import au.com.integradev.delphi.compiler.Platform;
 import au.com.integradev.delphi.file.DelphiFile;
 import au.com.integradev.delphi.file.DelphiFile.DelphiFileConstructionException;
 import au.com.integradev.delphi.file.DelphiFileConfig;
+import au.com.integradev.delphi.preprocessor.DelphiPreprocessor;
 import au.com.integradev.delphi.preprocessor.DelphiPreprocessorFactory;
 import au.com.integradev.delphi.preprocessor.search.SearchPath;
 import au.com.integradev.delphi.utils.DelphiUtils;
 import au.com.integradev.delphi.utils.files.DelphiFileUtils;
 import au.com.integradev.delphi.utils.types.TypeFactoryUtils;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Collections;
 import java.util.Set;
+import org.antlr.runtime.RecognitionException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -273,6 +281,34 @@ class GrammarTest {
     assertParsed("UnicodeIdentifiers.pas");
   }
 
+  @Test
+  void testMemoizedResultsShouldNotGrowWithFileSize(@TempDir Path tempDir)
+      throws IOException, RecognitionException {
+    int caseItems = 20_000;
+    StringBuilder source = new StringBuilder();
+    source.append("unit LargeCase;\ninterface\nimplementation\n");
+    source.append("procedure Foo(A: Integer);\nvar\n  B: Integer;\nbegin\n  case A of\n");
+    for (int i = 0; i < caseItems; ++i) {
+      source.append("    ").append(i).append(": B := Bar(").append(i).append(");\n");
+    }
+    source.append("  end;\nend;\nend.\n");
+
+    Path file = tempDir.resolve("LargeCase.pas");
+    Files.writeString(file, source, StandardCharsets.UTF_8);
+
+    DelphiLexer lexer =
+        new DelphiLexer(new DelphiFileStream(file.toString(), StandardCharsets.UTF_8.name()));
+    DelphiPreprocessor preprocessor =
+        fileConfig.getPreprocessorFactory().createPreprocessor(lexer, fileConfig);
+    preprocessor.process();
+
+    DelphiParser parser = new DelphiParser(preprocessor.getTokenStream());
+    parser.setTreeAdaptor(new DelphiTreeAdaptor());
+    parser.file();
+
+    assertThat(parser.getRuleMemoizationCacheSize()).isLessThan(caseItems);
+  }
+
   @Test
   void testFullWidthNumeralAtStartOfIdentifierShouldThrow() {
     assertThatThrownBy(() -> parse("FullWidthNumeralBeforeIdentifier.pas"))
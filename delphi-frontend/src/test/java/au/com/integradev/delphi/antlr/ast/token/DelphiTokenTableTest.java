@@ -0,0 +1,113 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2024 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.antlr.ast.token;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import au.com.integradev.delphi.antlr.DelphiLexer;
+import java.util.ArrayList;
+import java.util.List;
+import org.antlr.runtime.ANTLRStringStream;
+import org.antlr.runtime.CommonToken;
+import org.antlr.runtime.Token;
+import org.junit.jupiter.api.Test;
+import org.sonar.plugins.communitydelphi.api.token.DelphiToken;
+
+class DelphiTokenTableTest {
+  private static final String SOURCE =
+      "unit Foo;\n"
+          + "interface\n"
+          + "{ This is my multiline comment.\n As you can see, it's 3 whole lines.\n}\n"
+          + "{$IFDEF BAR}\n"
+          + "const Baz = 'Flarp';\n"
+          + "{$ENDIF}\n"
+          + "implementation\n"
+          + "end.";
+
+  @Test
+  void testTokensShouldMatchDelphiTokenImpl() {
+    List<CommonToken> tokens = lex(SOURCE);
+
+    DelphiTokenTable.Builder builder = DelphiTokenTable.builder(1);
+    for (CommonToken token : tokens) {
+      builder.add(token, token.getTokenIndex() + 1);
+    }
+    DelphiTokenTable table = builder.build();
+
+    assertThat(table).hasSameSizeAs(tokens);
+
+    for (int i = 0; i < tokens.size(); ++i) {
+      DelphiToken expected = new DelphiTokenImpl(tokens.get(i));
+      DelphiToken actual = table.get(i);
+
+      assertThat(actual.getImage()).isEqualTo(expected.getImage());
+      assertThat(actual.getType()).isEqualTo(expected.getType());
+      assertThat(actual.getBeginLine()).isEqualTo(expected.getBeginLine());
+      assertThat(actual.getBeginColumn()).isEqualTo(expected.getBeginColumn());
+      assertThat(actual.getEndLine()).isEqualTo(expected.getEndLine());
+      assertThat(actual.getEndColumn()).isEqualTo(expected.getEndColumn());
+      assertThat(actual.isComment()).isEqualTo(expected.isComment());
+      assertThat(actual.isCompilerDirective()).isEqualTo(expected.isCompilerDirective());
+      assertThat(actual.isWhitespace()).isEqualTo(expected.isWhitespace());
+      assertThat(actual.isKeyword()).isEqualTo(expected.isKeyword());
+      assertThat(actual.getIndex()).isEqualTo(expected.getIndex() + 1);
+    }
+  }
+
+  @Test
+  void testViewsOfTheSameRowShouldBeEqual() {
+    DelphiTokenTable.Builder builder = DelphiTokenTable.builder(1);
+    lex(SOURCE).forEach(token -> builder.add(token, token.getTokenIndex()));
+    DelphiTokenTable table = builder.build();
+
+    assertThat(table.get(0)).isEqualTo(table.get(0)).isNotEqualTo(table.get(1));
+  }
+
+  @Test
+  void testViewsShouldBeReused() {
+    DelphiTokenTable.Builder builder = DelphiTokenTable.builder(1);
+    lex(SOURCE).forEach(token -> builder.add(token, token.getTokenIndex()));
+    DelphiTokenTable table = builder.build();
+
+    assertThat(table.get(0)).isSameAs(table.get(0));
+    assertThat(table.get(0).getImage()).isSameAs(table.get(0).getImage());
+  }
+
+  @Test
+  void testTableShouldBeUnmodifiable() {
+    DelphiTokenTable table = DelphiTokenTable.builder(0).build();
+    DelphiToken token = new DelphiTokenImpl(null);
+
+    assertThatThrownBy(() -> table.add(token)).isInstanceOf(UnsupportedOperationException.class);
+    assertThatThrownBy(() -> table.get(0)).isInstanceOf(IndexOutOfBoundsException.class);
+  }
+
+  private static List<CommonToken> lex(String source) {
+    DelphiLexer lexer = new DelphiLexer(new ANTLRStringStream(source));
+    List<CommonToken> result = new ArrayList<>();
+    Token token;
+    int index = 0;
+    while ((token = lexer.nextToken()).getType() != Token.EOF) {
+      token.setTokenIndex(index++);
+      result.add((CommonToken) token);
+    }
+    return result;
+  }
+}
@@ -0,0 +1,73 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2024 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.coverage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class LineHitsReaderTest {
+  private final List<String> lineHits = new ArrayList<>();
+  private final LineHitsReader reader =
+      new LineHitsReader((line, hits) -> lineHits.add(line + "=" + hits));
+
+  private void read(String... chunks) {
+    for (String chunk : chunks) {
+      char[] characters = ("<" + chunk + ">").toCharArray();
+      reader.read(characters, 1, chunk.length());
+    }
+    reader.finish();
+  }
+
+  @Test
+  void testPairsShouldBeRead() {
+    read("16=1;17=0;23=12");
+    assertThat(lineHits).containsExactly("16=1", "17=0", "23=12");
+  }
+
+  @Test
+  void testPairsSplitAcrossChunksShouldBeRead() {
+    read("1", "6=", "1;1", "7=0", ";", "23=1", "2");
+    assertThat(lineHits).containsExactly("16=1", "17=0", "23=12");
+  }
+
+  @Test
+  void testWhitespaceShouldBeIgnored() {
+    read("\n  16=1;\n  17=0;\n");
+    assertThat(lineHits).containsExactly("16=1", "17=0");
+  }
+
+  @Test
+  void testPairsWithoutLineNumbersShouldBeIgnored() {
+    read("foo;=5;;16=1;");
+    assertThat(lineHits).containsExactly("16=1");
+  }
+
+  @Test
+  void testMalformedPairsShouldThrow() {
+    assertThatThrownBy(() -> read("16=x")).isInstanceOf(NumberFormatException.class);
+    assertThatThrownBy(() -> read("1a=1")).isInstanceOf(NumberFormatException.class);
+    assertThatThrownBy(() -> read("16=")).isInstanceOf(NumberFormatException.class);
+    assertThatThrownBy(() -> read("16=1=2")).isInstanceOf(NumberFormatException.class);
+    assertThatThrownBy(() -> read("16=2147483648")).isInstanceOf(NumberFormatException.class);
+  }
+}
@@ -30,6 +30,7 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import au.com.integradev.delphi.DelphiProperties;
 import au.com.integradev.delphi.core.Delphi;
 import au.com.integradev.delphi.coverage.DelphiCodeCoverageParser;
 import au.com.integradev.delphi.enviroment.EnvironmentVariableProvider;
@@ -38,6 +39,7 @@ import au.com.integradev.delphi.utils.DelphiUtils;
 import java.io.File;
 import java.io.IOException;
 import java.util.Collections;
+import java.util.List;
 import java.util.UUID;
 import org.apache.commons.io.FileUtils;
 import org.junit.jupiter.api.BeforeEach;
@@ -124,6 +126,26 @@ class DelphiCoverageToolParserTest {
     assertThat(context.lineHits(GLOBALS_FILE_KEY, 23)).isEqualTo((Integer) 1);
   }
 
+  @Test
+  void testLineHitsFromReportsParsedInParallelAreMerged() {
+    context.settings().setProperty(DelphiProperties.THREADS_KEY, 2);
+    parser =
+        new DelphiCodeCoverageParser(
+            new DelphiProjectHelper(
+                context.config(), context.fileSystem(), environmentVariableProvider));
+
+    parser.parse(
+        context,
+        List.of(
+            DelphiUtils.getResource(NORMAL_COVERAGE),
+            DelphiUtils.getResource(NORMAL_COVERAGE_PART_2)));
+
+    assertThat(context.lineHits(GLOBALS_FILE_KEY, 16)).isEqualTo((Integer) 1);
+    assertThat(context.lineHits(GLOBALS_FILE_KEY, 17)).isEqualTo((Integer) 1);
+    assertThat(context.lineHits(GLOBALS_FILE_KEY, 23)).isEqualTo((Integer) 1);
+    assertThat(context.lineHits(MAIN_WINDOW_FILE_KEY, 31)).isEqualTo((Integer) 1);
+  }
+
   void testReportFileIsIgnored(File file) {
     SensorContext mockContext = mock(SensorContext.class);
     assertThatCode(() -> parser.parse(mockContext, file)).doesNotThrowAnyException();
@@ -18,6 +18,7 @@
  */
 package au.com.integradev.delphi.executor;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
@@ -28,17 +29,31 @@ import static org.mockito.Mockito.when;
 
 import au.com.integradev.delphi.check.MasterCheckRegistrar;
 import au.com.integradev.delphi.compiler.Toolchain;
+import au.com.integradev.delphi.file.DelphiFile;
 import au.com.integradev.delphi.file.DelphiFile.DelphiInputFile;
 import au.com.integradev.delphi.msbuild.DelphiProjectHelper;
+import au.com.integradev.delphi.utils.files.DelphiFileUtils;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.sonar.api.SonarProduct;
 import org.sonar.api.SonarRuntime;
 import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.rule.RuleScope;
 import org.sonar.plugins.communitydelphi.api.ast.DelphiAst;
+import org.sonar.plugins.communitydelphi.api.ast.NameReferenceNode;
+import org.sonar.plugins.communitydelphi.api.ast.RoutineImplementationNode;
 import org.sonar.plugins.communitydelphi.api.check.DelphiCheck;
+import org.sonar.plugins.communitydelphi.api.check.DelphiCheckContext;
+import org.sonar.plugins.communitydelphi.api.token.DelphiToken;
 
 class DelphiChecksExecutorTest {
   private DelphiChecksExecutor executor;
@@ -83,6 +98,109 @@ class DelphiChecksExecutorTest {
     verify(allCheck, times(1)).visit(eq(testFile.getAst()), any());
   }
 
+  @Test
+  void testChecksShouldVisitTheSameNodesAsAFullWalk(@TempDir Path tempDir) throws IOException {
+    Path path = tempDir.resolve("Dispatch.pas");
+    Files.writeString(
+        path,
+        "unit Dispatch;\n"
+            + "interface\n"
+            + "uses System.SysUtils;\n"
+            + "procedure Foo;\n"
+            + "implementation\n"
+            + "// comment\n"
+            + "const\n"
+            + "  C = System.SysUtils.MaxInt;\n"
+            + "procedure Bar;\n"
+            + "begin\n"
+            + "  Foo;\n"
+            + "end;\n"
+            + "procedure Foo;\n"
+            + "  procedure Nested;\n"
+            + "  begin\n"
+            + "    Bar;\n"
+            + "  end;\n"
+            + "begin\n"
+            + "  {$IFDEF DEBUG}Nested;{$ENDIF}\n"
+            + "  System.SysUtils.Abort;\n"
+            + "end;\n"
+            + "end.");
+    DelphiAst ast = DelphiFile.from(path.toFile(), DelphiFileUtils.mockConfig()).getAst();
+
+    List<Supplier<RecordingCheck>> checkFactories =
+        List.of(
+            NameReferenceCheck::new,
+            RoutineAndNameReferenceCheck::new,
+            PruningRoutineCheck::new,
+            TokenCheck::new);
+
+    List<RecordingCheck> checks =
+        checkFactories.stream().map(Supplier::get).collect(Collectors.toList());
+    when(checkRegistrar.getChecks(RuleScope.ALL)).thenReturn(Set.copyOf(checks));
+
+    DelphiInputFile file = mockDelphiFile(InputFile.Type.MAIN);
+    when(file.getAst()).thenReturn(ast);
+    executor.execute(mock(), file);
+
+    for (int i = 0; i < checks.size(); ++i) {
+      RecordingCheck expected = checkFactories.get(i).get();
+      expected.visit(ast, null);
+
+      RecordingCheck check = checks.get(i);
+      assertThat(expected.visited).isNotEmpty();
+      assertThat(check.visited).containsExactlyElementsOf(expected.visited);
+      assertThat(check.starts).isEqualTo(1);
+      assertThat(check.ends).isEqualTo(1);
+    }
+  }
+
+  private static class RecordingCheck extends DelphiCheck {
+    protected final List<Object> visited = new ArrayList<>();
+    private int starts;
+    private int ends;
+
+    @Override
+    public void start(DelphiCheckContext context) {
+      ++starts;
+    }
+
+    @Override
+    public void end(DelphiCheckContext context) {
+      ++ends;
+    }
+  }
+
+  private static class NameReferenceCheck extends RecordingCheck {
+    @Override
+    public DelphiCheckContext visit(NameReferenceNode node, DelphiCheckContext context) {
+      visited.add(node);
+      return super.visit(node, context);
+    }
+  }
+
+  private static class RoutineAndNameReferenceCheck extends NameReferenceCheck {
+    @Override
+    public DelphiCheckContext visit(RoutineImplementationNode node, DelphiCheckContext context) {
+      visited.add(node);
+      return super.visit(node, context);
+    }
+  }
+
+  private static class PruningRoutineCheck extends NameReferenceCheck {
+    @Override
+    public DelphiCheckContext visit(RoutineImplementationNode node, DelphiCheckContext context) {
+      visited.add(node);
+      return context;
+    }
+  }
+
+  private static class TokenCheck extends RecordingCheck {
+    @Override
+    public void visitToken(DelphiToken token, DelphiCheckContext context) {
+      visited.add(token);
+    }
+  }
+
   private DelphiCheck mockDelphiCheck(RuleScope scope) {
     DelphiCheck check = mock();
     when(checkRegistrar.getChecks(scope)).thenReturn(Set.of(check));
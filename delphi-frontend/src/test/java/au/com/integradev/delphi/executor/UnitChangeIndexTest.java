@@ -0,0 +1,229 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2024 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import au.com.integradev.delphi.core.Delphi;
+import au.com.integradev.delphi.symbol.SymbolTable;
+import java.io.ByteArrayInputStream;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.sensor.cache.ReadCache;
+import org.sonar.api.batch.sensor.cache.WriteCache;
+import org.sonar.plugins.communitydelphi.api.symbol.declaration.UnitNameDeclaration;
+import org.sonar.plugins.communitydelphi.api.symbol.scope.FileScope;
+
+class UnitChangeIndexTest {
+  private SymbolTable symbolTable;
+
+  @BeforeEach
+  void setup() {
+    symbolTable = new SymbolTable();
+  }
+
+  @Test
+  void testChangedFileShouldBeAffected() {
+    InputFile changed = mockInputFile("Changed.pas", InputFile.Status.CHANGED);
+    InputFile added = mockInputFile("Added.pas", InputFile.Status.ADDED);
+    InputFile same = mockInputFile("Same.pas", InputFile.Status.SAME);
+    addUnit(changed, Set.of(), Set.of());
+    addUnit(added, Set.of(), Set.of());
+    addUnit(same, Set.of(), Set.of());
+
+    UnitChangeIndex index = UnitChangeIndex.create(List.of(changed, added, same), symbolTable);
+
+    assertThat(index.isAffected(changed)).isTrue();
+    assertThat(index.isAffected(added)).isTrue();
+    assertThat(index.isAffected(same)).isFalse();
+    assertThat(index.getAffectedCount()).isEqualTo(2);
+  }
+
+  @Test
+  void testDependentsOfChangedInterfacesShouldBeAffected() {
+    InputFile changed = mockInputFile("Changed.pas", InputFile.Status.CHANGED);
+    InputFile interfaceUser = mockInputFile("InterfaceUser.pas", InputFile.Status.SAME);
+    InputFile transitiveUser = mockInputFile("TransitiveUser.pas", InputFile.Status.SAME);
+    InputFile implementationUser = mockInputFile("ImplUser.pas", InputFile.Status.SAME);
+    InputFile unrelated = mockInputFile("Unrelated.pas", InputFile.Status.SAME);
+
+    UnitNameDeclaration changedUnit = addUnit(changed, Set.of(), Set.of());
+    UnitNameDeclaration interfaceUnit = addUnit(interfaceUser, Set.of(changedUnit), Set.of());
+    addUnit(transitiveUser, Set.of(), Set.of(interfaceUnit));
+    UnitNameDeclaration implementationUnit =
+        addUnit(implementationUser, Set.of(), Set.of(changedUnit));
+    addUnit(unrelated, Set.of(), Set.of());
+
+    // Depends on a unit whose interface is unaffected by the change
+    InputFile indirectUser = mockInputFile("IndirectUser.pas", InputFile.Status.SAME);
+    addUnit(indirectUser, Set.of(implementationUnit), Set.of());
+
+    UnitChangeIndex index =
+        UnitChangeIndex.create(
+            List.of(
+                changed,
+                interfaceUser,
+                transitiveUser,
+                implementationUser,
+                unrelated,
+                indirectUser),
+            symbolTable);
+
+    assertThat(index.isAffected(changed)).isTrue();
+    assertThat(index.isAffected(interfaceUser)).isTrue();
+    assertThat(index.isAffected(transitiveUser)).isTrue();
+    assertThat(index.isAffected(implementationUser)).isTrue();
+    assertThat(index.isAffected(unrelated)).isFalse();
+    assertThat(index.isAffected(indirectUser)).isFalse();
+  }
+
+  @Test
+  void testDependenciesOfChangedUnitsShouldBeAffected() {
+    InputFile changed = mockInputFile("Changed.pas", InputFile.Status.CHANGED);
+    InputFile interfaceDependency = mockInputFile("InterfaceDep.pas", InputFile.Status.SAME);
+    InputFile implementationDependency = mockInputFile("ImplDep.pas", InputFile.Status.SAME);
+    InputFile transitiveDependency = mockInputFile("TransitiveDep.pas", InputFile.Status.SAME);
+
+    UnitNameDeclaration transitiveUnit = addUnit(transitiveDependency, Set.of(), Set.of());
+    UnitNameDeclaration interfaceUnit =
+        addUnit(interfaceDependency, Set.of(transitiveUnit), Set.of());
+    UnitNameDeclaration implementationUnit = addUnit(implementationDependency, Set.of(), Set.of());
+    addUnit(changed, Set.of(interfaceUnit), Set.of(implementationUnit));
+
+    UnitChangeIndex index =
+        UnitChangeIndex.create(
+            List.of(changed, interfaceDependency, implementationDependency, transitiveDependency),
+            symbolTable);
+
+    assertThat(index.isAffected(changed)).isTrue();
+    assertThat(index.isAffected(interfaceDependency)).isTrue();
+    assertThat(index.isAffected(implementationDependency)).isTrue();
+    assertThat(index.isAffected(transitiveDependency)).isFalse();
+  }
+
+  @Test
+  void testChangedIncludeFileShouldAffectIncludingUnits() {
+    InputFile include = mockInputFile("Include.inc", InputFile.Status.CHANGED);
+    InputFile includer = mockInputFile("Includer.pas", InputFile.Status.SAME);
+    InputFile dependent = mockInputFile("Dependent.pas", InputFile.Status.SAME);
+    InputFile unrelated = mockInputFile("Unrelated.pas", InputFile.Status.SAME);
+
+    UnitNameDeclaration includerUnit = addUnit(includer, Set.of(), Set.of());
+    addUnit(dependent, Set.of(includerUnit), Set.of());
+    addUnit(unrelated, Set.of(), Set.of());
+    symbolTable.addIncludedFiles(includerUnit, Set.of(pathOf(include)));
+
+    UnitChangeIndex index =
+        UnitChangeIndex.create(List.of(include, includer, dependent, unrelated), symbolTable);
+
+    assertThat(index.isAffected(includer)).isTrue();
+    assertThat(index.isAffected(dependent)).isTrue();
+    assertThat(index.isAffected(unrelated)).isFalse();
+  }
+
+  @Test
+  void testChangedSourceFileWithoutUnitShouldNotCreateIndex() {
+    InputFile changed = mockInputFile("Changed.pas", InputFile.Status.CHANGED);
+    when(changed.language()).thenReturn(Delphi.KEY);
+
+    assertThat(UnitChangeIndex.create(List.of(changed), symbolTable)).isNull();
+  }
+
+  @Test
+  void testChangedOtherFileWithoutUnitShouldBeIgnored() {
+    InputFile changed = mockInputFile("Changed.txt", InputFile.Status.CHANGED);
+    InputFile same = mockInputFile("Same.pas", InputFile.Status.SAME);
+    addUnit(same, Set.of(), Set.of());
+
+    UnitChangeIndex index = UnitChangeIndex.create(List.of(changed, same), symbolTable);
+
+    assertThat(index.getAffectedCount()).isZero();
+  }
+
+  @Test
+  void testDeletedSourceFilesShouldBeDetected() {
+    InputFile foo = mockInputFile("Foo.pas", InputFile.Status.SAME);
+    InputFile bar = mockInputFile("Bar.pas", InputFile.Status.SAME);
+    ReadCache previousCache = mockPreviousCache(List.of(foo, bar));
+
+    assertThat(UnitChangeIndex.hasDeletedSourceFiles(previousCache, List.of(foo, bar))).isFalse();
+    assertThat(UnitChangeIndex.hasDeletedSourceFiles(previousCache, List.of(foo))).isTrue();
+  }
+
+  @Test
+  void testUnknownPreviousSourceFilesShouldBeTreatedAsDeleted() {
+    InputFile foo = mockInputFile("Foo.pas", InputFile.Status.SAME);
+    ReadCache previousCache = mock(ReadCache.class);
+
+    assertThat(UnitChangeIndex.hasDeletedSourceFiles(previousCache, List.of(foo))).isTrue();
+  }
+
+  private static ReadCache mockPreviousCache(List<InputFile> sourceFiles) {
+    WriteCache nextCache = mock(WriteCache.class);
+    UnitChangeIndex.saveSourceFiles(nextCache, sourceFiles);
+
+    ArgumentCaptor<String> key = ArgumentCaptor.forClass(String.class);
+    ArgumentCaptor<byte[]> data = ArgumentCaptor.forClass(byte[].class);
+    verify(nextCache).write(key.capture(), data.capture());
+
+    ReadCache previousCache = mock(ReadCache.class);
+    when(previousCache.contains(key.getValue())).thenReturn(true);
+    when(previousCache.read(eq(key.getValue())))
+        .thenAnswer(invocation -> new ByteArrayInputStream(data.getValue()));
+    return previousCache;
+  }
+
+  private UnitNameDeclaration addUnit(
+      InputFile inputFile,
+      Set<UnitNameDeclaration> interfaceDependencies,
+      Set<UnitNameDeclaration> implementationDependencies) {
+    FileScope fileScope = mock(FileScope.class);
+    when(fileScope.getImportDeclarations()).thenReturn(Collections.emptySet());
+
+    UnitNameDeclaration unit = mock(UnitNameDeclaration.class);
+    when(unit.getInterfaceDependencies()).thenReturn(interfaceDependencies);
+    when(unit.getImplementationDependencies()).thenReturn(implementationDependencies);
+    when(unit.getFileScope()).thenReturn(fileScope);
+
+    symbolTable.addUnit(pathOf(inputFile), unit);
+    return unit;
+  }
+
+  private static String pathOf(InputFile inputFile) {
+    return Path.of(inputFile.uri()).toAbsolutePath().toString();
+  }
+
+  private static InputFile mockInputFile(String fileName, InputFile.Status status) {
+    InputFile inputFile = mock(InputFile.class);
+    when(inputFile.uri()).thenReturn(Path.of("/project", fileName).toUri());
+    when(inputFile.status()).thenReturn(status);
+    when(inputFile.key()).thenReturn("project:" + fileName);
+    return inputFile;
+  }
+}
@@ -0,0 +1,86 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2024 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.sonar.plugins.communitydelphi.api.ast.DelphiAst;
+import org.sonar.plugins.communitydelphi.api.ast.NameReferenceNode;
+import org.sonar.plugins.communitydelphi.api.ast.RoutineImplementationNode;
+import org.sonar.plugins.communitydelphi.api.ast.RoutineNode;
+import org.sonar.plugins.communitydelphi.api.check.DelphiCheck;
+import org.sonar.plugins.communitydelphi.api.check.DelphiCheckContext;
+import org.sonar.plugins.communitydelphi.api.token.DelphiToken;
+
+class VisitorSubscriptionTest {
+  private static class RoutineCheck extends DelphiCheck {
+    @Override
+    public DelphiCheckContext visit(RoutineNode node, DelphiCheckContext context) {
+      return super.visit(node, context);
+    }
+  }
+
+  private static class InheritedRoutineCheck extends RoutineCheck {
+    // Inherits the RoutineNode override
+  }
+
+  private static class TokenCheck extends DelphiCheck {
+    @Override
+    public void visitToken(DelphiToken token, DelphiCheckContext context) {
+      // do nothing
+    }
+  }
+
+  private static class EmptyCheck extends DelphiCheck {
+    // Overrides nothing
+  }
+
+  @Test
+  void testOverriddenOverloadShouldSubscribeToSubtypes() {
+    VisitorSubscription subscription = VisitorSubscription.of(RoutineCheck.class);
+
+    assertThat(subscription.isSubscribedTo(RoutineNode.class)).isTrue();
+    assertThat(subscription.isSubscribedTo(RoutineImplementationNode.class)).isTrue();
+    assertThat(subscription.isSubscribedTo(NameReferenceNode.class)).isFalse();
+    assertThat(subscription.isSubscribedTo(DelphiAst.class)).isFalse();
+  }
+
+  @Test
+  void testInheritedOverloadShouldSubscribe() {
+    VisitorSubscription subscription = VisitorSubscription.of(InheritedRoutineCheck.class);
+
+    assertThat(subscription.isSubscribedTo(RoutineImplementationNode.class)).isTrue();
+  }
+
+  @Test
+  void testVisitTokenShouldSubscribeToAst() {
+    VisitorSubscription subscription = VisitorSubscription.of(TokenCheck.class);
+
+    assertThat(subscription.isSubscribedTo(DelphiAst.class)).isTrue();
+    assertThat(subscription.isSubscribedTo(RoutineNode.class)).isFalse();
+  }
+
+  @Test
+  void testNoOverridesShouldSubscribeToAst() {
+    VisitorSubscription subscription = VisitorSubscription.of(EmptyCheck.class);
+
+    assertThat(subscription.isSubscribedTo(DelphiAst.class)).isTrue();
+  }
+}
@@ -0,0 +1,121 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2024 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.file;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+import au.com.integradev.delphi.file.DelphiFile.DelphiFileConstructionException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class ParallelFileParserTest {
+  private static final List<Integer> ITEMS =
+      IntStream.range(0, 20).boxed().collect(Collectors.toList());
+
+  @ParameterizedTest
+  @ValueSource(ints = {1, 4})
+  void testFilesShouldBeReturnedInOrder(int threads) {
+    Map<Integer, DelphiFile> files = new ConcurrentHashMap<>();
+    Function<Integer, DelphiFile> parseFunction =
+        item -> {
+          // Later items finish first, so the results only come back in order if they're queued
+          sleep(ITEMS.size() - item);
+          return files.computeIfAbsent(item, key -> mock(DelphiFile.class));
+        };
+
+    List<DelphiFile> result = new ArrayList<>();
+    try (var parser = new ParallelFileParser<>(ITEMS, parseFunction, threads)) {
+      for (int i = 0; i < ITEMS.size(); ++i) {
+        result.add(parser.next().get());
+      }
+    }
+
+    assertThat(result)
+        .containsExactlyElementsOf(ITEMS.stream().map(files::get).collect(Collectors.toList()));
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {1, 4})
+  void testParseExceptionsShouldReachTheConsumer(int threads) {
+    var exception = new DelphiFileConstructionException(new IOException("Unreadable"));
+    Function<Integer, DelphiFile> parseFunction =
+        item -> {
+          if (item == 1) {
+            throw exception;
+          }
+          return mock(DelphiFile.class);
+        };
+
+    try (var parser = new ParallelFileParser<>(ITEMS, parseFunction, threads)) {
+      assertThat(parser.next().get()).isNotNull();
+      Supplier<DelphiFile> failed = parser.next();
+      assertThatThrownBy(failed::get).isSameAs(exception);
+      assertThat(parser.next().get()).isNotNull();
+    }
+  }
+
+  @Test
+  void testCloseShouldInterruptPendingParses() throws InterruptedException {
+    CountDownLatch started = new CountDownLatch(2);
+    CountDownLatch interrupted = new CountDownLatch(2);
+    AtomicInteger completed = new AtomicInteger();
+    Function<Integer, DelphiFile> parseFunction =
+        item -> {
+          started.countDown();
+          try {
+            new CountDownLatch(1).await();
+            completed.incrementAndGet();
+          } catch (InterruptedException e) {
+            interrupted.countDown();
+            Thread.currentThread().interrupt();
+          }
+          return mock(DelphiFile.class);
+        };
+
+    var parser = new ParallelFileParser<>(ITEMS, parseFunction, 2);
+    assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+    parser.close();
+
+    assertThat(interrupted.await(10, TimeUnit.SECONDS)).isTrue();
+    assertThat(completed).hasValue(0);
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
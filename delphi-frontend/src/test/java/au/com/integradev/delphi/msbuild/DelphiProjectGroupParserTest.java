@@ -42,9 +42,14 @@ class DelphiProjectGroupParserTest {
   private Path environmentProj;
 
   private List<DelphiProject> parse(String resource) {
+    return parse(resource, 1);
+  }
+
+  private List<DelphiProject> parse(String resource, int threads) {
     Path groupproj = DelphiUtils.getResource(resource).toPath();
     DelphiProjectGroupParser parser =
-        new DelphiProjectGroupParser(groupproj, environmentVariableProvider, environmentProj);
+        new DelphiProjectGroupParser(
+            groupproj, environmentVariableProvider, environmentProj, threads);
     return parser.parse();
   }
 
@@ -61,6 +66,19 @@ class DelphiProjectGroupParserTest {
     assertThat(parse(PROJECT_GROUP)).hasSize(3);
   }
 
+  @Test
+  void testProjectGroupParsedInParallel() {
+    List<DelphiProject> sequential = parse(PROJECT_GROUP);
+    List<DelphiProject> parallel = parse(PROJECT_GROUP, 4);
+
+    assertThat(parallel).hasSameSizeAs(sequential);
+    for (int i = 0; i < sequential.size(); ++i) {
+      assertThat(parallel.get(i).getSourceFiles()).isEqualTo(sequential.get(i).getSourceFiles());
+      assertThat(parallel.get(i).getConditionalDefines())
+          .isEqualTo(sequential.get(i).getConditionalDefines());
+    }
+  }
+
   @Test
   void testProjectGroupWithInvalidProjects() {
     assertThat(parse(PROJECT_GROUP_WITH_INVALID_PROJECTS)).hasSize(1);
@@ -317,6 +317,16 @@ class DelphiProjectHelperTest {
         .isEqualTo(DelphiProperties.COMPILER_VERSION_DEFAULT);
   }
 
+  @Test
+  void testInvalidThreadsShouldUseDefault() {
+    when(settings.getInt(DelphiProperties.THREADS_KEY)).thenReturn(Optional.of(0));
+
+    DelphiProjectHelper delphiProjectHelper =
+        new DelphiProjectHelper(settings, fs, environmentVariableProvider);
+
+    assertThat(delphiProjectHelper.getThreads()).isEqualTo(DelphiProperties.THREADS_DEFAULT);
+  }
+
   @Test
   void testNoFilesExist(@TempDir Path tempDir) {
     fs = new DefaultFileSystem(tempDir);
@@ -44,6 +44,19 @@ class ConditionEvaluatorTest {
     assertThatThrownBy(() -> evaluate("'foo'")).isInstanceOf(ConditionEvaluationError.class);
   }
 
+  @Test
+  void testCachedConditionShouldBeEvaluatedAgainstCurrentProperties() {
+    ProjectProperties properties = properties();
+    var evaluator = new ConditionEvaluator(properties, tempDir);
+    String condition = "'$(Cfg_1)'!=''";
+
+    assertThat(evaluator.evaluate(condition)).isFalse();
+
+    properties.set("Cfg_1", "true");
+    assertThat(evaluator.evaluate(condition)).isTrue();
+    assertThat(new ConditionEvaluator(properties(), tempDir).evaluate(condition)).isFalse();
+  }
+
   private static ProjectProperties properties() {
     var environmentVariableProvider = mock(EnvironmentVariableProvider.class);
     when(environmentVariableProvider.getenv()).thenReturn(Collections.emptyMap());
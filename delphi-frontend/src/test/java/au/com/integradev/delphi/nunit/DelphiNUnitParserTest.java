@@ -59,6 +59,18 @@ class DelphiNUnitParserTest {
     assertThat(results.getFailures()).isEqualTo(3);
   }
 
+  @Test
+  void testCollectInParallel() {
+    File reportsDir = DelphiUtils.getResource("/au/com/integradev/delphi/nunit/reports");
+    ResultsAggregator sequential = DelphiNUnitParser.collect(reportsDir, 1);
+    ResultsAggregator parallel = DelphiNUnitParser.collect(reportsDir, 4);
+
+    assertThat(parallel.getTestsRun()).isEqualTo(sequential.getTestsRun());
+    assertThat(parallel.getSkipped()).isEqualTo(sequential.getSkipped());
+    assertThat(parallel.getFailures()).isEqualTo(sequential.getFailures());
+    assertThat(parallel.getDurationSeconds()).isEqualTo(sequential.getDurationSeconds());
+  }
+
   @ParameterizedTest
   @ValueSource(strings = {"v2", "v3"})
   void testCollectMalformedReport(String version) {
@@ -20,6 +20,7 @@ package au.com.integradev.delphi.preprocessor;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Collections.emptySet;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
@@ -34,12 +35,19 @@ import au.com.integradev.delphi.preprocessor.search.SearchPath;
 import au.com.integradev.delphi.utils.DelphiUtils;
 import au.com.integradev.delphi.utils.files.DelphiFileUtils;
 import au.com.integradev.delphi.utils.types.TypeFactoryUtils;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.stream.Collectors;
 import org.antlr.runtime.BufferedTokenStream;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sonar.plugins.communitydelphi.api.directive.CompilerDirective;
+import org.sonar.plugins.communitydelphi.api.directive.ResourceDirective;
+import org.sonar.plugins.communitydelphi.api.token.DelphiToken;
 import org.sonar.plugins.communitydelphi.api.type.TypeFactory;
 
 class DelphiPreprocessorTest {
@@ -123,6 +131,41 @@ class DelphiPreprocessorTest {
     assertThatThrownBy(preprocessor::process).isInstanceOf(IllegalStateException.class);
   }
 
+  @Test
+  void testCompilerDirectiveIndexShouldContainDirectivesOfTheMainFile(@TempDir Path tempDir)
+      throws IOException {
+    Files.writeString(tempDir.resolve("Include.inc"), "{$R Included.res}", UTF_8);
+    Path file =
+        Files.writeString(
+            tempDir.resolve("Directives.pas"),
+            "unit Directives;\n"
+                + "interface\n"
+                + "{$IFDEF FOO}\n"
+                + "{$R *.dfm}\n"
+                + "{$ENDIF}\n"
+                + "{$I Include.inc}\n"
+                + "implementation\n"
+                + "end.",
+            UTF_8);
+
+    DelphiFile delphiFile = DelphiFile.from(file.toFile(), DelphiFileUtils.mockConfig());
+    CompilerDirectiveIndex index = delphiFile.getCompilerDirectiveIndex();
+
+    assertThat(index.getDirectives()).hasSize(4);
+    assertThat(index.getDirectives(ResourceDirective.class))
+        .extracting(ResourceDirective::getResourceFile)
+        .containsExactly("*.dfm");
+
+    delphiFile.getTokens().stream()
+        .filter(DelphiToken::isCompilerDirective)
+        .forEach(
+            token ->
+                assertThat(index.getDirective(token))
+                    .map(CompilerDirective::getToken)
+                    .map(DelphiToken::getImage)
+                    .contains(token.getImage()));
+  }
+
   private static void executeWithDefines(String filename, String... defines) {
     DelphiFileConfig config =
         DelphiFile.createConfig(
@@ -0,0 +1,84 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2024 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.preprocessor;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.antlr.runtime.Token;
+import org.antlr.runtime.TokenSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class IncludeTokenCacheTest {
+  @Test
+  void testReplayedTokensShouldBeFreshCopies(@TempDir Path tempDir) throws IOException {
+    Path include = tempDir.resolve("Include.inc");
+    Files.writeString(include, "{$DEFINE FOO}\nconst Bar = 1;", UTF_8);
+
+    IncludeTokenCache cache = new IncludeTokenCache();
+    String path = include.toAbsolutePath().toString();
+
+    List<Token> first = readAll(cache.getTokenSource(path, UTF_8.name()));
+    List<Token> second = readAll(cache.getTokenSource(path, UTF_8.name()));
+
+    assertThat(first).hasSameSizeAs(second);
+    for (int i = 0; i < first.size(); ++i) {
+      assertThat(first.get(i)).isNotSameAs(second.get(i));
+      assertThat(first.get(i).getType()).isEqualTo(second.get(i).getType());
+      assertThat(first.get(i).getText()).isEqualTo(second.get(i).getText());
+    }
+    assertThat(first.get(first.size() - 1).getType()).isEqualTo(Token.EOF);
+  }
+
+  @Test
+  void testModifiedFileShouldBeLexedAgain(@TempDir Path tempDir) throws IOException {
+    Path include = tempDir.resolve("Include.inc");
+    Files.writeString(include, "const Foo = 1;", UTF_8);
+    Files.setLastModifiedTime(include, FileTime.fromMillis(1000));
+
+    IncludeTokenCache cache = new IncludeTokenCache();
+    String path = include.toAbsolutePath().toString();
+
+    List<Token> before = readAll(cache.getTokenSource(path, UTF_8.name()));
+
+    Files.writeString(include, "const Foo = 1; Bar = 2;", UTF_8);
+    Files.setLastModifiedTime(include, FileTime.fromMillis(2000));
+
+    List<Token> after = readAll(cache.getTokenSource(path, UTF_8.name()));
+
+    assertThat(after).hasSizeGreaterThan(before.size());
+  }
+
+  private static List<Token> readAll(TokenSource tokenSource) {
+    List<Token> result = new ArrayList<>();
+    Token token;
+    do {
+      token = tokenSource.nextToken();
+      result.add(token);
+    } while (token.getType() != Token.EOF);
+    return result;
+  }
+}
@@ -18,11 +18,16 @@
  */
 package au.com.integradev.delphi.preprocessor.search;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
 
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Collections;
+import java.util.List;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 class SearchPathTest {
   @Test
@@ -31,4 +36,20 @@ class SearchPathTest {
     Path invalidPath = Path.of("C:/MY/INVALID/PATH");
     assertThatCode(() -> searchPath.search("file", invalidPath)).doesNotThrowAnyException();
   }
+
+  @Test
+  void testSearchShouldIgnoreCaseAndPreferShallowestFile(@TempDir Path tempDir)
+      throws IOException {
+    Path root = Files.createDirectories(tempDir.resolve("Root"));
+    Path nested = Files.createDirectories(root.resolve("Nested"));
+    Path shallowFile = Files.createFile(root.resolve("Defines.inc"));
+    Files.createFile(nested.resolve("defines.INC"));
+    Path nestedOnlyFile = Files.createFile(nested.resolve("Nested.inc"));
+
+    SearchPath searchPath = SearchPath.create(List.of(root));
+
+    assertThat(searchPath.search("DEFINES.inc", tempDir)).isEqualTo(shallowFile);
+    assertThat(searchPath.search("nested.inc", tempDir)).isEqualTo(nestedOnlyFile);
+    assertThat(searchPath.search("Missing.inc", tempDir)).isNull();
+  }
 }
@@ -0,0 +1,104 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2024 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.reporting;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import au.com.integradev.delphi.DelphiProperties;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.sonar.api.config.Configuration;
+import org.sonar.plugins.communitydelphi.api.ast.DelphiAst;
+import org.sonar.plugins.communitydelphi.api.ast.DelphiNode;
+import org.sonar.plugins.communitydelphi.api.ast.RoutineImplementationNode;
+import org.sonar.plugins.communitydelphi.api.ast.TypeDeclarationNode;
+import org.sonar.plugins.communitydelphi.api.check.FilePosition;
+import org.sonar.plugins.communitydelphi.api.symbol.declaration.TypeNameDeclaration;
+import org.sonar.plugins.communitydelphi.api.type.Type;
+
+class TestCodeIndexTest {
+  private static final String TEST_TYPE = "Test.TTestSuite";
+
+  private TestCodeDetector detector;
+  private DelphiAst ast;
+
+  @BeforeEach
+  void setup() {
+    Configuration config = mock(Configuration.class);
+    when(config.get(DelphiProperties.TEST_TYPE_KEY)).thenReturn(Optional.of(TEST_TYPE));
+    when(config.get(DelphiProperties.TEST_ATTRIBUTE_KEY)).thenReturn(Optional.empty());
+    detector = new TestCodeDetector(config);
+
+    Type testType = mock(Type.class);
+    when(testType.isDescendantOf(TEST_TYPE)).thenReturn(true);
+    Type otherType = mock(Type.class);
+
+    TypeNameDeclaration testTypeDeclaration = mock(TypeNameDeclaration.class);
+    when(testTypeDeclaration.getType()).thenReturn(testType);
+
+    TypeDeclarationNode testTypeNode = mockNode(TypeDeclarationNode.class, 3, 10);
+    when(testTypeNode.getType()).thenReturn(testType);
+    TypeDeclarationNode nestedTypeNode = mockNode(TypeDeclarationNode.class, 5, 6);
+    when(nestedTypeNode.getType()).thenReturn(otherType);
+    TypeDeclarationNode otherTypeNode = mockNode(TypeDeclarationNode.class, 12, 15);
+    when(otherTypeNode.getType()).thenReturn(otherType);
+
+    RoutineImplementationNode testRoutine = mockNode(RoutineImplementationNode.class, 20, 30);
+    when(testRoutine.getTypeDeclaration()).thenReturn(testTypeDeclaration);
+    RoutineImplementationNode globalRoutine = mockNode(RoutineImplementationNode.class, 32, 40);
+
+    ast = mock(DelphiAst.class);
+    when(ast.findDescendantsOfType(TypeDeclarationNode.class))
+        .thenReturn(List.of(testTypeNode, nestedTypeNode, otherTypeNode));
+    when(ast.findDescendantsOfType(RoutineImplementationNode.class))
+        .thenReturn(List.of(testRoutine, globalRoutine));
+  }
+
+  @Test
+  void testIndexShouldMatchDetector() {
+    TestCodeIndex index = detector.createIndex(ast);
+
+    assertInTestCode(index, FilePosition.from(4, 2, 4, 10), true);
+    assertInTestCode(index, FilePosition.from(5, 4, 6, 1), false);
+    assertInTestCode(index, FilePosition.from(7, 2, 7, 10), true);
+    assertInTestCode(index, FilePosition.from(9, 0, 11, 0), false);
+    assertInTestCode(index, FilePosition.from(13, 2, 13, 10), false);
+    assertInTestCode(index, FilePosition.atLineLevel(25), true);
+    assertInTestCode(index, FilePosition.from(35, 2, 35, 10), false);
+    assertInTestCode(index, FilePosition.from(50, 2, 50, 10), false);
+  }
+
+  private void assertInTestCode(TestCodeIndex index, FilePosition position, boolean expected) {
+    assertThat(detector.isInTestCode(ast, position)).isEqualTo(expected);
+    assertThat(index.isInTestCode(position)).isEqualTo(expected);
+  }
+
+  private static <T extends DelphiNode> T mockNode(Class<T> nodeClass, int beginLine, int endLine) {
+    T node = mock(nodeClass);
+    when(node.getBeginLine()).thenReturn(beginLine);
+    when(node.getBeginColumn()).thenReturn(0);
+    when(node.getEndLine()).thenReturn(endLine);
+    when(node.getEndColumn()).thenReturn(80);
+    return node;
+  }
+}
@@ -0,0 +1,55 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2024 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.symbol;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class NameKeysTest {
+  @Test
+  void testFoldedNameShouldBeReturnedAsIs() {
+    String name = "tmyclass_1";
+    assertThat(NameKeys.fold(name)).isSameAs(name);
+  }
+
+  @Test
+  void testKeysShouldMatchCaseInsensitiveOrder() {
+    List<String> names =
+        List.of(
+            "TMyClass",
+            "tmyclass",
+            "TMYCLASS",
+            "Straße",
+            "STRASSE",
+            "Ünïcödé",
+            "üNÏCÖDÉ",
+            "İi");
+
+    for (String a : names) {
+      for (String b : names) {
+        boolean equalIgnoringCase = String.CASE_INSENSITIVE_ORDER.compare(a, b) == 0;
+        assertThat(NameKeys.fold(a).equals(NameKeys.fold(b)))
+            .as("%s / %s", a, b)
+            .isEqualTo(equalIgnoringCase);
+      }
+    }
+  }
+}
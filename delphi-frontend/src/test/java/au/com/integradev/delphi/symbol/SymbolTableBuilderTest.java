@@ -26,6 +26,7 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import au.com.integradev.delphi.compiler.Platform;
+import au.com.integradev.delphi.file.DelphiFile;
 import au.com.integradev.delphi.preprocessor.DelphiPreprocessorFactory;
 import au.com.integradev.delphi.preprocessor.search.SearchPath;
 import au.com.integradev.delphi.symbol.SymbolTableBuilder.SymbolTableConstructionException;
@@ -36,8 +37,10 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.nio.file.spi.FileSystemProvider;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Supplier;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -191,6 +194,69 @@ class SymbolTableBuilderTest {
     assertThatCode(symbolTable::build).doesNotThrowAnyException();
   }
 
+  @Test
+  void testRetainedFilesShouldOnlyBeAvailableWhenEnabled(
+      @TempDir Path standardLibraryPath, @TempDir Path tempDir) throws IOException {
+    createStandardLibrary(standardLibraryPath);
+
+    Path sourceFilePath = tempDir.resolve("SourceFile.pas");
+    Files.writeString(
+        sourceFilePath,
+        "unit SourceFile;\n" //
+            + "interface\n"
+            + "implementation\n"
+            + "end.");
+
+    String sourceFile = sourceFilePath.toAbsolutePath().toString();
+    String systemFile = standardLibraryPath.resolve("System.pas").toAbsolutePath().toString();
+
+    Supplier<SymbolTableBuilder> builder =
+        () ->
+            SymbolTable.builder()
+                .preprocessorFactory(new DelphiPreprocessorFactory(Platform.WINDOWS))
+                .typeFactory(TypeFactoryUtils.defaultFactory())
+                .standardLibraryPath(standardLibraryPath)
+                .sourceFiles(List.of(sourceFilePath));
+
+    assertThat(builder.get().build().takeRetainedFile(sourceFile)).isNull();
+
+    SymbolTable symbolTable = builder.get().retainParsedFiles(true).build();
+
+    assertThat(symbolTable.takeRetainedFile(systemFile)).isNull();
+    DelphiFile retained = symbolTable.takeRetainedFile(sourceFile);
+    assertThat(retained).isNotNull();
+    assertThat(retained.getAst().isUnit()).isTrue();
+    assertThat(symbolTable.takeRetainedFile(sourceFile)).isNull();
+  }
+
+  @Test
+  void testMultipleThreadsShouldIndexAllSourceFiles(
+      @TempDir Path standardLibraryPath, @TempDir Path tempDir) throws IOException {
+    createStandardLibrary(standardLibraryPath);
+
+    List<Path> sourceFiles = new ArrayList<>();
+    for (int i = 0; i < 10; ++i) {
+      Path sourceFilePath = tempDir.resolve("SourceFile" + i + ".pas");
+      String uses = (i > 0) ? ("uses\n  SourceFile" + (i - 1) + ";\n") : "";
+      Files.writeString(
+          sourceFilePath, "unit SourceFile" + i + ";\ninterface\n" + uses + "implementation\nend.");
+      sourceFiles.add(sourceFilePath);
+    }
+
+    SymbolTable symbolTable =
+        SymbolTable.builder()
+            .preprocessorFactory(new DelphiPreprocessorFactory(Platform.WINDOWS))
+            .typeFactory(TypeFactoryUtils.defaultFactory())
+            .standardLibraryPath(standardLibraryPath)
+            .sourceFiles(sourceFiles)
+            .threads(4)
+            .build();
+
+    for (Path sourceFile : sourceFiles) {
+      assertThat(symbolTable.getUnitByPath(sourceFile.toAbsolutePath().toString())).isNotNull();
+    }
+  }
+
   private static void createStandardLibrary(Path path) throws IOException {
     Files.writeString(
         path.resolve("SysInit.pas"),
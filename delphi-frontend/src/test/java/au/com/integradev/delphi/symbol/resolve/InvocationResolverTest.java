@@ -122,7 +122,12 @@ class InvocationResolverTest {
   }
 
   private void runResolver(List<Type> argumentTypes, List<InvocationCandidate> candidates) {
-    InvocationResolver resolver = new InvocationResolver();
+    runResolver(argumentTypes, candidates, new ArgumentMatchCache());
+  }
+
+  private void runResolver(
+      List<Type> argumentTypes, List<InvocationCandidate> candidates, ArgumentMatchCache cache) {
+    InvocationResolver resolver = new InvocationResolver(cache);
 
     for (Type argumentType : argumentTypes) {
       InvocationArgument argument = mock(InvocationArgument.class);
@@ -366,4 +371,49 @@ class InvocationResolverTest {
     assertAmbiguous(type(VARIANT), type(SMALLINT), type(WORD));
     assertIncompatible(type(VARIANT), unknownType());
   }
+
+  @Test
+  void testArgumentMatchesShouldBeSharedBetweenInvocations() {
+    ArgumentMatchCache cache = new ArgumentMatchCache();
+
+    for (int i = 0; i < 3; ++i) {
+      InvocationCandidate winner = mockCandidate(List.of(type(LONGINT)), false);
+      InvocationCandidate loser = mockCandidate(List.of(type(BYTE)), false);
+
+      runResolver(List.of(type(INTEGER)), List.of(winner, loser), cache);
+
+      assertThat(resolved).containsOnly(winner);
+      assertThat(cache.size()).isEqualTo(2);
+    }
+  }
+
+  @Test
+  void testInvalidatedArgumentMatchesShouldBeComputedAgain() {
+    ArgumentMatchCache cache = new ArgumentMatchCache();
+    InvocationCandidate candidate = mockCandidate(List.of(type(LONGINT)), false);
+
+    runResolver(List.of(type(INTEGER)), List.of(candidate), cache);
+    cache.invalidateAll();
+
+    assertThat(cache.size()).isZero();
+
+    runResolver(List.of(type(INTEGER)), List.of(candidate), cache);
+
+    assertThat(resolved).containsOnly(candidate);
+    assertThat(cache.getStats().hitCount()).isZero();
+    assertThat(cache.getStats().missCount()).isEqualTo(2);
+  }
+
+  @Test
+  void testArgumentMatchesForExpressionTypesShouldNotBeCached() {
+    ArgumentMatchCache cache = new ArgumentMatchCache();
+    Type arrayConstructor = FACTORY.arrayConstructor(List.of(type(INTEGER)));
+    Type classReference = ((TypeFactoryImpl) FACTORY).classOf(null, type(INTEGER));
+
+    InvocationCandidate candidate = mockCandidate(List.of(untypedType()), false);
+    runResolver(List.of(arrayConstructor), List.of(candidate), cache);
+    runResolver(List.of(classReference), List.of(candidate), cache);
+
+    assertThat(cache.size()).isZero();
+  }
 }
@@ -346,7 +346,7 @@ class OperatorOverloadResolutionTest {
   }
 
   private static String resolveOperatorOverload(BinaryOperator operator, Type left, Type right) {
-    InvocationResolver resolver = new InvocationResolver();
+    InvocationResolver resolver = new InvocationResolver(new ArgumentMatchCache());
     resolver.addArgument(new InvocationArgument(mockExpressionNode(left)));
     resolver.addArgument(new InvocationArgument(mockExpressionNode(right)));
 
@@ -358,7 +358,7 @@ class OperatorOverloadResolutionTest {
   }
 
   private static String resolveOperatorOverload(UnaryOperator operator, Type operand) {
-    InvocationResolver resolver = new InvocationResolver();
+    InvocationResolver resolver = new InvocationResolver(new ArgumentMatchCache());
     resolver.addArgument(new InvocationArgument(mockExpressionNode(operand)));
 
     createOperatorInvocables(operator, operand).stream()
@@ -0,0 +1,60 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2024 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.symbol.scope;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class TokenIndexMapTest {
+  @Test
+  void testGetShouldFindValuesRegisteredOutOfOrder() {
+    TokenIndexMap<String> map = new TokenIndexMap<>();
+    map.put(10, "ten");
+    map.put(-1, "imaginary");
+    map.put(3, "three");
+    map.put(7, "seven");
+
+    assertThat(map.get(3)).isEqualTo("three");
+    assertThat(map.get(7)).isEqualTo("seven");
+    assertThat(map.get(10)).isEqualTo("ten");
+    assertThat(map.get(-1)).isEqualTo("imaginary");
+    assertThat(map.get(5)).isNull();
+  }
+
+  @Test
+  void testLaterRegistrationShouldReplaceEarlierOne() {
+    TokenIndexMap<String> map = new TokenIndexMap<>();
+    map.put(1, "first");
+    map.put(2, "other");
+    map.put(1, "second");
+
+    assertThat(map.get(1)).isEqualTo("second");
+    assertThat(map.size()).isEqualTo(2);
+
+    map.put(1, "third");
+    assertThat(map.get(1)).isEqualTo("third");
+    assertThat(map.get(2)).isEqualTo("other");
+  }
+
+  @Test
+  void testEmptyMapShouldReturnNull() {
+    assertThat(new TokenIndexMap<String>().get(0)).isNull();
+  }
+}
@@ -19,11 +19,21 @@
 package au.com.integradev.delphi.symbol.scope;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import au.com.integradev.delphi.type.generic.GenerifiableTypeImpl;
+import java.util.Collections;
 import org.junit.jupiter.api.Test;
+import org.sonar.plugins.communitydelphi.api.symbol.NameOccurrence;
+import org.sonar.plugins.communitydelphi.api.symbol.declaration.NameDeclaration;
+import org.sonar.plugins.communitydelphi.api.symbol.scope.DelphiScope;
 import org.sonar.plugins.communitydelphi.api.type.Type;
+import org.sonar.plugins.communitydelphi.api.type.TypeSpecializationContext;
 
 class TypeScopeImplTest {
   @Test
@@ -36,4 +46,37 @@ class TypeScopeImplTest {
 
     assertThat(scope).hasToString("Foo <TypeScope>");
   }
+
+  @Test
+  void testSpecializedScopeShouldOnlySpecializeDeclarationsThatAreLookedUp() {
+    TypeSpecializationContext context = mock(TypeSpecializationContext.class);
+    NameDeclaration specializedFoo = mockDeclaration("Foo");
+    NameDeclaration foo = mockDeclaration("Foo");
+    when(foo.specialize(context)).thenReturn(specializedFoo);
+    NameDeclaration bar = mockDeclaration("Bar");
+
+    TypeScopeImpl genericScope = new TypeScopeImpl();
+    genericScope.addDeclaration(foo);
+    genericScope.addDeclaration(bar);
+
+    DelphiScope specializedScope =
+        TypeScopeImpl.specializedScope(genericScope, mock(GenerifiableTypeImpl.class), context);
+
+    NameOccurrence occurrence = mock(NameOccurrence.class);
+    when(occurrence.getImage()).thenReturn("foo");
+    when(occurrence.getTypeArguments()).thenReturn(Collections.emptyList());
+
+    assertThat(specializedScope.findDeclaration(occurrence)).containsExactly(specializedFoo);
+    assertThat(specializedScope.findDeclaration(occurrence)).containsExactly(specializedFoo);
+
+    verify(foo, times(1)).specialize(any());
+    verify(bar, never()).specialize(any());
+  }
+
+  private static NameDeclaration mockDeclaration(String name) {
+    NameDeclaration declaration = mock(NameDeclaration.class);
+    when(declaration.getName()).thenReturn(name);
+    when(declaration.getImage()).thenReturn(name);
+    return declaration;
+  }
 }
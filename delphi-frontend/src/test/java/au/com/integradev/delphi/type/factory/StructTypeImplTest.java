@@ -0,0 +1,137 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2024 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.type.factory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import au.com.integradev.delphi.symbol.scope.TypeScopeImpl;
+import au.com.integradev.delphi.type.factory.StructTypeImpl.ImagePart;
+import au.com.integradev.delphi.type.generic.SpecializationCache;
+import au.com.integradev.delphi.type.generic.TypeParameterTypeImpl;
+import au.com.integradev.delphi.utils.types.TypeFactoryUtils;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.sonar.plugins.communitydelphi.api.symbol.scope.DelphiScope;
+import org.sonar.plugins.communitydelphi.api.type.IntrinsicType;
+import org.sonar.plugins.communitydelphi.api.type.StructKind;
+import org.sonar.plugins.communitydelphi.api.type.Type;
+import org.sonar.plugins.communitydelphi.api.type.Type.TypeParameterType;
+import org.sonar.plugins.communitydelphi.api.type.TypeSpecializationContext;
+
+class StructTypeImplTest {
+  private final SpecializationCache specializationCache = new SpecializationCache();
+
+  @Test
+  void testIsDescendantOfShouldIncludeIndirectAncestors() {
+    StructTypeImpl base = createClass("TBase", Collections.emptySet());
+    StructTypeImpl middle = createClass("TMiddle", Set.of(base));
+    StructTypeImpl child = createClass("TChild", Set.of(middle));
+
+    assertThat(child.isDescendantOf("Test.TMiddle")).isTrue();
+    assertThat(child.isDescendantOf("test.tbase")).isTrue();
+    assertThat(child.isDescendantOf("Test.TChild")).isFalse();
+    assertThat(child.isDescendantOf("Test.TOther")).isFalse();
+    assertThat(child.isDescendantOf((String) null)).isFalse();
+  }
+
+  @Test
+  void testIsDescendantOfShouldSeeAncestorsAddedByFullTypeDeclaration() {
+    StructTypeImpl base = createClass("TBase", Collections.emptySet());
+    StructTypeImpl forward = createClass("TMiddle", Collections.emptySet());
+    StructTypeImpl child = createClass("TChild", Set.of(forward));
+
+    assertThat(child.isDescendantOf("Test.TBase")).isFalse();
+
+    forward.setFullType(createClass("TMiddle", Set.of(base)));
+
+    assertThat(child.isDescendantOf("Test.TBase")).isTrue();
+  }
+
+  @Test
+  void testIsDescendantOfShouldSeeAncestorsAddedToIndirectAncestors() {
+    StructTypeImpl root = createClass("TRoot", Collections.emptySet());
+    StructTypeImpl forward = createClass("TBase", Collections.emptySet());
+    StructTypeImpl middle = createClass("TMiddle", Set.of(forward));
+    StructTypeImpl child = createClass("TChild", Set.of(middle));
+
+    assertThat(child.isDescendantOf("Test.TRoot")).isFalse();
+    assertThat(middle.isDescendantOf("Test.TRoot")).isFalse();
+
+    forward.setFullType(createClass("TBase", Set.of(root)));
+
+    assertThat(child.isDescendantOf("Test.TRoot")).isTrue();
+    assertThat(middle.isDescendantOf("Test.TRoot")).isTrue();
+  }
+
+  @Test
+  void testIsDescendantOfShouldMatchAliasedAncestors() {
+    StructTypeImpl base = createClass("TBase", Collections.emptySet());
+    Type alias = TypeFactoryUtils.defaultFactory().weakAlias("Test.TAlias", base);
+    StructTypeImpl child = createClass("TChild", Set.of(alias));
+
+    assertThat(child.isDescendantOf("Test.TAlias")).isTrue();
+    assertThat(child.isDescendantOf("Test.TBase")).isTrue();
+  }
+
+  @Test
+  void testForwardDeclarationShouldShareSpecializationsWithFullDeclaration() {
+    TypeParameterType typeParameter = TypeParameterTypeImpl.create("T");
+    StructTypeImpl forward = createGenericClass("TList", typeParameter);
+    StructTypeImpl full = createGenericClass("TList", typeParameter);
+
+    TypeSpecializationContext context = mock(TypeSpecializationContext.class);
+    Type integer = TypeFactoryUtils.defaultFactory().getIntrinsic(IntrinsicType.INTEGER);
+    when(context.getArgument(typeParameter)).thenReturn(integer);
+
+    forward.setFullType(full);
+    Type specializedForward = forward.specialize(context);
+    Type specializedFull = full.specialize(context);
+
+    assertThat(specializedForward).isSameAs(specializedFull);
+    assertThat(specializedFull.getImage()).isEqualTo("Test.TList<Integer>");
+    assertThat(specializationCache.size()).isEqualTo(1);
+    assertThat(specializationCache.getHits()).isEqualTo(1);
+  }
+
+  private StructTypeImpl createGenericClass(String name, TypeParameterType typeParameter) {
+    return new StructTypeImpl(
+        List.of(new ImagePart("Test"), new ImagePart(name, List.of(typeParameter))),
+        8,
+        new TypeScopeImpl(),
+        Collections.emptySet(),
+        StructKind.CLASS,
+        Collections.emptyList(),
+        specializationCache);
+  }
+
+  private StructTypeImpl createClass(String name, Set<Type> ancestors) {
+    return new StructTypeImpl(
+        List.of(new ImagePart("Test"), new ImagePart(name)),
+        8,
+        DelphiScope.unknownScope(),
+        ancestors,
+        StructKind.CLASS,
+        Collections.emptyList(),
+        specializationCache);
+  }
+}
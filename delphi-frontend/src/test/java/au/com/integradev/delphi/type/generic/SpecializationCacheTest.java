@@ -0,0 +1,58 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2024 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.type.generic;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import org.junit.jupiter.api.Test;
+import org.sonar.plugins.communitydelphi.api.type.TypeSpecializationContext;
+
+class SpecializationCacheTest {
+  @Test
+  void testSpecializationsShouldBeInterned() {
+    SpecializationCache cache = new SpecializationCache();
+    GenerifiableTypeImpl genericType = mock(GenerifiableTypeImpl.class);
+    GenerifiableTypeImpl specializedType = mock(GenerifiableTypeImpl.class);
+    GenerifiableTypeImpl otherSpecializedType = mock(GenerifiableTypeImpl.class);
+    TypeSpecializationContext context = mock(TypeSpecializationContext.class);
+
+    assertThat(cache.get(genericType, context)).isNull();
+    assertThat(cache.putIfAbsent(genericType, context, specializedType)).isSameAs(specializedType);
+    assertThat(cache.putIfAbsent(genericType, context, otherSpecializedType))
+        .isSameAs(specializedType);
+    assertThat(cache.get(genericType, context)).isSameAs(specializedType);
+
+    assertThat(cache.size()).isEqualTo(1);
+    assertThat(cache.getHits()).isEqualTo(1);
+    assertThat(cache.getMisses()).isEqualTo(1);
+  }
+
+  @Test
+  void testSpecializationsShouldBeKeyedByGenericTypeIdentity() {
+    SpecializationCache cache = new SpecializationCache();
+    GenerifiableTypeImpl genericType = mock(GenerifiableTypeImpl.class);
+    TypeSpecializationContext context = mock(TypeSpecializationContext.class);
+
+    cache.putIfAbsent(genericType, context, mock(GenerifiableTypeImpl.class));
+
+    assertThat(cache.get(mock(GenerifiableTypeImpl.class), context)).isNull();
+    assertThat(cache.get(genericType, mock(TypeSpecializationContext.class))).isNull();
+  }
+}
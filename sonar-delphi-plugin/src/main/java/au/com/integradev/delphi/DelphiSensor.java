@@ -30,10 +30,12 @@ import au.com.integradev.delphi.compiler.Toolchain;
 import au.com.integradev.delphi.core.Delphi;
 import au.com.integradev.delphi.executor.DelphiMasterExecutor;
 import au.com.integradev.delphi.executor.ExecutorContext;
+import au.com.integradev.delphi.executor.UnitChangeIndex;
 import au.com.integradev.delphi.file.DelphiFile;
 import au.com.integradev.delphi.file.DelphiFile.DelphiFileConstructionException;
 import au.com.integradev.delphi.file.DelphiFile.DelphiInputFile;
 import au.com.integradev.delphi.file.DelphiFileConfig;
+import au.com.integradev.delphi.file.ParallelFileParser;
 import au.com.integradev.delphi.msbuild.DelphiProjectHelper;
 import au.com.integradev.delphi.preprocessor.DelphiPreprocessorFactory;
 import au.com.integradev.delphi.preprocessor.search.SearchPath;
@@ -43,10 +45,13 @@ import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.sonar.api.batch.fs.FileSystem;
 import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.sensor.Sensor;
 import org.sonar.api.batch.sensor.SensorContext;
@@ -116,6 +121,8 @@ public class DelphiSensor implements Sensor {
             .unitScopeNames(delphiProjectHelper.getUnitScopeNames())
             .unitAliases(delphiProjectHelper.getUnitAliases())
             .standardLibraryPath(delphiProjectHelper.standardLibraryPath())
+            .retainParsedFiles(delphiProjectHelper.shouldRetainParsedFiles())
+            .threads(delphiProjectHelper.getThreads())
             .build();
 
     ProgressReport progressReport =
@@ -124,7 +131,15 @@ public class DelphiSensor implements Sensor {
 
     progressReport.start(sourceFiles.stream().map(Path::toString).collect(Collectors.toList()));
 
-    ExecutorContext executorContext = new ExecutorContext(sensorContext, symbolTable);
+    UnitChangeIndex changeIndex = createChangeIndex(sensorContext, inputFiles, symbolTable);
+    if (changeIndex != null) {
+      LOG.info(
+          "{}/{} source files are affected by changes since the previous analysis",
+          changeIndex.getAffectedCount(),
+          sourceFiles.size());
+    }
+
+    ExecutorContext executorContext = new ExecutorContext(sensorContext, symbolTable, changeIndex);
     DelphiFileConfig config =
         DelphiFile.createConfig(
             delphiProjectHelper.encoding(),
@@ -135,13 +150,18 @@ public class DelphiSensor implements Sensor {
 
     boolean success = false;
 
-    try {
+    // Analysis results are reported on this thread, since checks and the symbol table hold state
+    // that isn't safe to share between threads. Only the files are parsed ahead in parallel.
+    try (ParallelFileParser<Path, DelphiInputFile> parser =
+        new ParallelFileParser<>(
+            sourceFiles,
+            sourceFile -> createDelphiInputFile(sourceFile, config, symbolTable),
+            delphiProjectHelper.getThreads())) {
       for (Path sourceFile : sourceFiles) {
         String absolutePath = sourceFile.toAbsolutePath().toString();
+        Supplier<DelphiInputFile> delphiFileSupplier = parser.next();
         try {
-          InputFile inputFile = delphiProjectHelper.getFile(absolutePath);
-          DelphiInputFile delphiFile = DelphiInputFile.from(inputFile, config);
-          executor.execute(executorContext, delphiFile);
+          executor.execute(executorContext, delphiFileSupplier.get());
           progressReport.nextFile();
         } catch (DelphiFileConstructionException e) {
           LOG.error("Error while analyzing {}", absolutePath, e);
@@ -153,6 +173,55 @@ public class DelphiSensor implements Sensor {
     }
   }
 
+  @Nullable
+  private static UnitChangeIndex createChangeIndex(
+      SensorContext context, Iterable<InputFile> sourceFiles, SymbolTable symbolTable) {
+    boolean sourceFilesDeleted =
+        !context.isCacheEnabled()
+            || UnitChangeIndex.hasDeletedSourceFiles(context.previousCache(), sourceFiles);
+
+    if (context.isCacheEnabled()) {
+      UnitChangeIndex.saveSourceFiles(context.nextCache(), sourceFiles);
+    }
+
+    if (!context.canSkipUnchangedFiles()) {
+      return null;
+    }
+
+    if (sourceFilesDeleted) {
+      LOG.info("Source files may have been deleted since the previous analysis");
+    } else {
+      FileSystem fs = context.fileSystem();
+      UnitChangeIndex changeIndex =
+          UnitChangeIndex.create(fs.inputFiles(fs.predicates().all()), symbolTable);
+      if (changeIndex != null) {
+        return changeIndex;
+      }
+    }
+
+    LOG.info("All source files will be analyzed");
+    return null;
+  }
+
+  private DelphiInputFile createDelphiInputFile(
+      Path sourceFile, DelphiFileConfig config, SymbolTable symbolTable) {
+    String absolutePath = sourceFile.toAbsolutePath().toString();
+    InputFile inputFile = delphiProjectHelper.getFile(absolutePath);
+    DelphiFile retainedFile = symbolTable.takeRetainedFile(absolutePath);
+
+    if (retainedFile != null && hasConfiguredEncoding(inputFile, config)) {
+      return DelphiInputFile.from(inputFile, retainedFile);
+    }
+
+    return DelphiInputFile.from(inputFile, config);
+  }
+
+  private static boolean hasConfiguredEncoding(InputFile inputFile, DelphiFileConfig config) {
+    // Source files are parsed with the configured encoding during symbol table construction, so a
+    // retained file can only be reused if the input file doesn't specify a different encoding.
+    return inputFile.charset() == null || inputFile.charset().name().equals(config.getEncoding());
+  }
+
   private boolean shouldExecuteOnProject() {
     return delphiProjectHelper.shouldExecuteOnProject();
   }
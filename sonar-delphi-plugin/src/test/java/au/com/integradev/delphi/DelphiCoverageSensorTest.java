@@ -20,6 +20,7 @@ package au.com.integradev.delphi;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
@@ -35,6 +36,7 @@ import au.com.integradev.delphi.coverage.DelphiCoverageParserFactory;
 import au.com.integradev.delphi.msbuild.DelphiProjectHelper;
 import au.com.integradev.delphi.utils.DelphiUtils;
 import java.io.File;
+import java.util.List;
 import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -88,13 +90,15 @@ class DelphiCoverageSensorTest {
 
     sensor.execute(context);
 
-    verify(coverageParser, never()).parse(any(), any());
+    verify(coverageParser, never()).parse(any(), any(File.class));
+    verify(coverageParser, never()).parse(any(), anyList());
 
     context.settings().setProperty(DelphiProperties.COVERAGE_REPORT_KEY, "</invalidPath");
 
     sensor.execute(context);
 
-    verify(coverageParser, never()).parse(any(), any());
+    verify(coverageParser, never()).parse(any(), any(File.class));
+    verify(coverageParser, never()).parse(any(), anyList());
   }
 
   @Test
@@ -108,6 +112,6 @@ class DelphiCoverageSensorTest {
     sensor.execute(context);
 
     verify(coverageParser, times(1))
-        .parse(any(), eq(DelphiUtils.getResource(COVERAGE_REPORT_PATH + "/Report.xml")));
+        .parse(any(), eq(List.of(DelphiUtils.getResource(COVERAGE_REPORT_PATH + "/Report.xml"))));
   }
 }
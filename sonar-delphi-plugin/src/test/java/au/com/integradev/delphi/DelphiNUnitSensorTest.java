@@ -25,6 +25,7 @@ import static org.mockito.Mockito.verify;
 import static org.sonar.api.measures.CoreMetrics.*;
 
 import au.com.integradev.delphi.core.Delphi;
+import au.com.integradev.delphi.msbuild.DelphiProjectHelper;
 import au.com.integradev.delphi.utils.DelphiUtils;
 import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
@@ -36,6 +37,7 @@ import org.sonar.api.config.internal.MapSettings;
 class DelphiNUnitSensorTest {
   private static final String PROJECT_DIR = "/au/com/integradev/delphi/nunit";
 
+  private final DelphiProjectHelper delphiProjectHelper = mock(DelphiProjectHelper.class);
   private MapSettings settings;
   private SensorContextTester context;
   private DelphiNUnitSensor sensor;
@@ -44,7 +46,8 @@ class DelphiNUnitSensorTest {
   void setup() {
     context = SensorContextTester.create(DelphiUtils.getResource(PROJECT_DIR));
     settings = new MapSettings();
-    sensor = new DelphiNUnitSensor(settings.asConfig());
+    sensor = new DelphiNUnitSensor(settings.asConfig(), delphiProjectHelper);
+    when(delphiProjectHelper.getThreads()).thenReturn(1);
   }
 
   void assertAllMeasuresEmpty() {
@@ -80,6 +83,20 @@ class DelphiNUnitSensorTest {
         .isEqualTo(1561L);
   }
 
+  @Test
+  void testExecuteWithMultipleThreads() {
+    when(delphiProjectHelper.getThreads()).thenReturn(4);
+    settings.setProperty(DelphiProperties.NUNIT_REPORT_PATHS_PROPERTY, "./");
+    sensor.execute(context);
+
+    verify(delphiProjectHelper).getThreads();
+    assertThat(context.measure(context.project().key(), TESTS).value()).isEqualTo(8);
+    assertThat(context.measure(context.project().key(), SKIPPED_TESTS).value()).isEqualTo(1);
+    assertThat(context.measure(context.project().key(), TEST_FAILURES).value()).isEqualTo(3);
+    assertThat(context.measure(context.project().key(), TEST_EXECUTION_TIME).value())
+        .isEqualTo(1561L);
+  }
+
   @Test
   void testExecuteWithNoReportPath() {
     sensor.execute(context);
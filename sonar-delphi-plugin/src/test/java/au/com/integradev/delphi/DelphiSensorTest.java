@@ -32,17 +32,25 @@ import static org.mockito.Mockito.when;
 
 import au.com.integradev.delphi.core.Delphi;
 import au.com.integradev.delphi.executor.DelphiMasterExecutor;
+import au.com.integradev.delphi.executor.Executor;
+import au.com.integradev.delphi.file.DelphiFile.DelphiInputFile;
 import au.com.integradev.delphi.msbuild.DelphiProjectHelper;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 import org.apache.commons.io.FileUtils;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.ArgumentCaptor;
 import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.sensor.SensorDescriptor;
+import org.sonar.plugins.communitydelphi.api.ast.DelphiNode;
+import org.sonar.plugins.communitydelphi.api.symbol.declaration.UnitNameDeclaration;
 
 class DelphiSensorTest {
   private final DelphiMasterExecutor executor = mock(DelphiMasterExecutor.class);
@@ -143,4 +151,54 @@ class DelphiSensorTest {
 
     verify(executor, times(1)).execute(any(), any());
   }
+
+  @Test
+  void testWhenParsedFilesAreRetainedThenExecutorIsCalledWithRetainedFile() {
+    when(delphiProjectHelper.shouldRetainParsedFiles()).thenReturn(true);
+
+    sensor.execute(mock());
+
+    ArgumentCaptor<Executor.Context> contextCaptor =
+        ArgumentCaptor.forClass(Executor.Context.class);
+    ArgumentCaptor<DelphiInputFile> fileCaptor = ArgumentCaptor.forClass(DelphiInputFile.class);
+    verify(executor, times(1)).execute(contextCaptor.capture(), fileCaptor.capture());
+
+    String path = baseDir.resolve("SourceFile.pas").toAbsolutePath().toString();
+    UnitNameDeclaration unit = contextCaptor.getValue().symbolTable().getUnitByPath(path);
+    DelphiNode unitNode = (DelphiNode) unit.getNode();
+
+    assertThat(fileCaptor.getValue().getAst()).isSameAs(unitNode.getAst());
+  }
+
+  @ParameterizedTest
+  @ValueSource(booleans = {false, true})
+  void testWhenFilesAreParsedInParallelThenExecutorIsCalledInOrder(boolean retainParsedFiles)
+      throws IOException {
+    List<InputFile> inputFiles = new ArrayList<>();
+    for (String unitName : List.of("First", "Broken", "Second", "Third")) {
+      Path path = baseDir.resolve(unitName + ".pas");
+      String body = unitName.equals("Broken") ? "not valid delphi" : "implementation";
+      Files.writeString(path, "unit " + unitName + ";\ninterface\n" + body + "\nend.");
+
+      InputFile inputFile = mock(InputFile.class);
+      when(inputFile.uri()).thenReturn(path.toUri());
+      when(delphiProjectHelper.getFile(path.toAbsolutePath().toString())).thenReturn(inputFile);
+      inputFiles.add(inputFile);
+    }
+
+    when(delphiProjectHelper.inputFiles()).thenReturn(inputFiles);
+    when(delphiProjectHelper.getThreads()).thenReturn(2);
+    when(delphiProjectHelper.shouldRetainParsedFiles()).thenReturn(retainParsedFiles);
+
+    sensor.execute(mock());
+
+    ArgumentCaptor<DelphiInputFile> captor = ArgumentCaptor.forClass(DelphiInputFile.class);
+    verify(executor, times(3)).execute(any(), captor.capture());
+    assertThat(captor.getAllValues())
+        .extracting(file -> file.getAst().getFileHeader().getName())
+        .containsExactly("First", "Second", "Third");
+    assertThat(captor.getAllValues())
+        .extracting(DelphiInputFile::getInputFile)
+        .containsExactly(inputFiles.get(0), inputFiles.get(2), inputFiles.get(3));
+  }
 }